@@ -0,0 +1,124 @@
+package com.barbershop.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límites de /auth/login y /auth/register por IP y por email. Se comprueban en el
+ * controlador antes de cualquier consulta o hash, así que una ráfaga de intentos
+ * se rechaza sin coste de base de datos ni de CPU.
+ */
+@Component
+public class AuthRateLimiter {
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    // Cabecera con la IP real cuando hay un proxy delante (por ejemplo X-Forwarded-For); vacía = IP de la conexión
+    @Value("${security.rate-limit.client-ip-header:}")
+    private String clientIpHeader;
+
+    // Proxies de confianza delante de la aplicación; cada uno añade una entrada a la derecha de la cabecera
+    @Value("${security.rate-limit.trusted-proxies:1}")
+    private int trustedProxies;
+
+    @Value("${security.rate-limit.login.ip.capacity:20}")
+    private int loginIpCapacity;
+
+    @Value("${security.rate-limit.login.ip.per-minute:20}")
+    private int loginIpPerMinute;
+
+    @Value("${security.rate-limit.login.email.capacity:5}")
+    private int loginEmailCapacity;
+
+    @Value("${security.rate-limit.login.email.per-minute:5}")
+    private int loginEmailPerMinute;
+
+    @Value("${security.rate-limit.register.ip.capacity:5}")
+    private int registerIpCapacity;
+
+    @Value("${security.rate-limit.register.ip.per-minute:5}")
+    private int registerIpPerMinute;
+
+    @Value("${security.rate-limit.register.email.capacity:3}")
+    private int registerEmailCapacity;
+
+    @Value("${security.rate-limit.register.email.per-minute:3}")
+    private int registerEmailPerMinute;
+
+    private TokenBucketRateLimiter loginByIp;
+    private TokenBucketRateLimiter loginByEmail;
+    private TokenBucketRateLimiter registerByIp;
+    private TokenBucketRateLimiter registerByEmail;
+
+    @PostConstruct
+    public void init() {
+        loginByIp = new TokenBucketRateLimiter(loginIpCapacity, loginIpPerMinute, maxKeys);
+        loginByEmail = new TokenBucketRateLimiter(loginEmailCapacity, loginEmailPerMinute, maxKeys);
+        registerByIp = new TokenBucketRateLimiter(registerIpCapacity, registerIpPerMinute, maxKeys);
+        registerByEmail = new TokenBucketRateLimiter(registerEmailCapacity, registerEmailPerMinute, maxKeys);
+    }
+
+    /**
+     * Devuelve 0 si se permite el intento de login o los segundos que hay que
+     * esperar antes de reintentar.
+     */
+    public long checkLogin(HttpServletRequest request, String email) {
+        return check(loginByIp, loginByEmail, request, email);
+    }
+
+    public long checkRegister(HttpServletRequest request, String email) {
+        return check(registerByIp, registerByEmail, request, email);
+    }
+
+    private long check(TokenBucketRateLimiter byIp, TokenBucketRateLimiter byEmail,
+                       HttpServletRequest request, String email) {
+        if (!enabled) {
+            return 0;
+        }
+        String ip = clientIp(request);
+        String emailKey = email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+
+        // Se miran los dos cubos antes de consumir: un intento que rechaza el límite por
+        // email no debe gastar el token de la IP (ni al revés)
+        long wait = Math.max(byIp.peek(ip), emailKey != null ? byEmail.peek(emailKey) : 0);
+        if (wait == 0) {
+            wait = byIp.tryAcquire(ip);
+        }
+        if (wait == 0 && emailKey != null) {
+            wait = byEmail.tryAcquire(emailKey);
+        }
+        if (wait == 0) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Las entradas de la izquierda de X-Forwarded-For las escribe el cliente y se pueden
+     * falsificar; se toma la que añadió el proxy de confianza más externo, contando
+     * {@code trusted-proxies} entradas desde la derecha.
+     */
+    private String clientIp(HttpServletRequest request) {
+        if (StringUtils.hasText(clientIpHeader)) {
+            String forwarded = request.getHeader(clientIpHeader);
+            if (StringUtils.hasText(forwarded)) {
+                String[] hops = forwarded.split(",");
+                String ip = hops[Math.max(0, hops.length - Math.max(1, trustedProxies))].trim();
+                if (!ip.isEmpty()) {
+                    return ip;
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,65 @@
+package com.barbershop.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo público (barberos y servicios). Se usa como ETag de los
+ * endpoints de /public, así que cualquier escritura que cambie lo que devuelven
+ * debe llamar a {@link #bumpBarbers()} o {@link #bumpServices()}.
+ *
+ * El ETag incluye el instante de arranque para que un reinicio, que vuelve a
+ * empezar las versiones desde cero, no reutilice ETags ya emitidos.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong barbers = new AtomicLong();
+    private final AtomicLong services = new AtomicLong();
+
+    public void bumpBarbers() {
+        bump(barbers);
+    }
+
+    public void bumpServices() {
+        bump(services);
+    }
+
+    public long getBarbersVersion() {
+        return barbers.get();
+    }
+
+    public long getServicesVersion() {
+        return services.get();
+    }
+
+    public String barbersEtag() {
+        return "\"barbers-" + epoch + "-" + barbers.get() + "\"";
+    }
+
+    public String servicesEtag() {
+        return "\"services-" + epoch + "-" + services.get() + "\"";
+    }
+
+    /**
+     * Incrementa la versión y, si hay una transacción en curso, la vuelve a
+     * incrementar tras el commit: una petición concurrente que lea los datos
+     * anteriores no puede quedar asociada a la versión definitiva.
+     */
+    private static void bump(AtomicLong version) {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.barbershop.config;
 
-import com.barbershop.repository.TokenBlacklistRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,7 +27,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private UserDetailsService userDetailsService;
 
     @Autowired
-    private TokenBlacklistRepository tokenBlacklistRepository;
+    private TokenBlacklistCache tokenBlacklistCache;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -36,17 +39,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt)) {
+                // La huella se calcula una vez y sirve para la lista negra y la caché de claims
+                byte[] digest = TokenDigest.sha256(jwt);
+
                 // Check if token is blacklisted (logged out)
-                if (tokenBlacklistRepository.existsByToken(jwt)) {
+                if (tokenBlacklistCache.isBlacklisted(digest)) {
                     logger.warn("Token has been blacklisted (logged out)");
                     filterChain.doFilter(request, response);
                     return;
                 }
 
-                if (jwtTokenProvider.validateToken(jwt)) {
-                    String username = jwtTokenProvider.getUsernameFromToken(jwt);
+                Claims claims = jwtTokenProvider.getValidatedClaims(jwt, digest);
+                if (claims != null) {
+                    String username = claims.getSubject();
 
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = userPrincipalCache.get(username, userDetailsService::loadUserByUsername);
                     UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -2,6 +2,9 @@ package com.barbershop.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,11 +12,17 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -23,8 +32,105 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration:604800000}") // 7 days by default
     private long refreshTokenExpirationInMs;
 
+    // 0 desactiva la caché de claims
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
+    // La clave y el parser son inmutables y thread-safe: se construyen una sola vez
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Claims ya verificados por huella SHA-256 del token, válidos hasta su expiración
+    private final Map<String, Claims> verifiedClaims = new ConcurrentHashMap<>();
+
+    public JwtTokenProvider() {
+    }
+
+    JwtTokenProvider(String jwtSecret, long jwtExpirationInMs, int claimsCacheMaxEntries) {
+        this.jwtSecret = jwtSecret;
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.claimsCacheMaxEntries = claimsCacheMaxEntries;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
+    }
+
+    /**
+     * Verifica firma y expiración en una sola pasada y devuelve los claims.
+     * Los tokens ya verificados se sirven desde memoria hasta que expiran,
+     * sin repetir el HMAC ni el parseo.
+     *
+     * @throws JwtException si el token no es válido o ha expirado
+     */
+    public Claims parseClaims(String token) {
+        return parseClaims(token, TokenDigest.sha256(token));
+    }
+
+    /**
+     * Igual que {@link #parseClaims(String)} reutilizando la huella SHA-256 del token
+     * ya calculada por el llamador (la misma que se usa contra la lista negra).
+     */
+    public Claims parseClaims(String token, byte[] digest) {
+        if (claimsCacheMaxEntries <= 0) {
+            return jwtParser.parseSignedClaims(token).getPayload();
+        }
+
+        String key = TokenDigest.hex(digest);
+        Claims cached = verifiedClaims.get(key);
+        if (cached != null) {
+            if (cached.getExpiration().getTime() > System.currentTimeMillis()) {
+                return cached;
+            }
+            verifiedClaims.remove(key);
+            throw new ExpiredJwtException(null, cached, "JWT expired");
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            if (verifiedClaims.size() >= claimsCacheMaxEntries) {
+                long now = System.currentTimeMillis();
+                verifiedClaims.values().removeIf(c -> c.getExpiration().getTime() <= now);
+                if (verifiedClaims.size() >= claimsCacheMaxEntries) {
+                    verifiedClaims.clear();
+                }
+            }
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Igual que {@link #parseClaims(String)} pero devuelve null si el token no es válido.
+     */
+    public Claims getValidatedClaims(String token) {
+        return getValidatedClaims(token, TokenDigest.sha256(token));
+    }
+
+    public Claims getValidatedClaims(String token, byte[] digest) {
+        try {
+            return parseClaims(token, digest);
+        } catch (MalformedJwtException ex) {
+            logger.debug("Invalid JWT token");
+        } catch (ExpiredJwtException ex) {
+            logger.debug("Expired JWT token");
+        } catch (UnsupportedJwtException ex) {
+            logger.debug("Unsupported JWT token");
+        } catch (IllegalArgumentException ex) {
+            logger.debug("JWT claims string is empty");
+        } catch (Exception ex) {
+            logger.warn("JWT validation error: {}", ex.getMessage());
+        }
+        return null;
     }
 
     public String generateToken(Authentication authentication) {
@@ -51,41 +157,25 @@ public class JwtTokenProvider {
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parseClaims(token).getSubject();
+    }
 
-        return claims.getSubject();
+    public LocalDateTime getExpiryDateFromToken(String token) {
+        Claims claims = parseClaims(token);
+        return LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
-        } catch (Exception ex) {
-            System.err.println("JWT validation error: " + ex.getMessage());
-        }
-        return false;
+        return getValidatedClaims(token) != null;
     }
 
     // Refresh Token Methods
     public String generateRefreshToken(String username) {
         Date expiryDate = new Date(System.currentTimeMillis() + refreshTokenExpirationInMs);
 
+        // El jti hace único cada refresh token aunque se emitan dos en el mismo segundo
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(expiryDate)
@@ -99,14 +189,7 @@ public class JwtTokenProvider {
 
     public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getExpiration().before(new Date());
-        } catch (ExpiredJwtException ex) {
-            return true;
+            return parseClaims(token).getExpiration().before(new Date());
         } catch (Exception ex) {
             return true;
         }
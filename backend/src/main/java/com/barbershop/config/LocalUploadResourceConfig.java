@@ -0,0 +1,29 @@
+package com.barbershop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Paths;
+
+/**
+ * Sirve en /uploads/** las imágenes guardadas por LocalImageStorage
+ * ({@code upload.storage=local}). Con Cloudinary las URLs apuntan a su CDN y
+ * este handler no se registra.
+ */
+@Configuration
+@ConditionalOnProperty(name = "upload.storage", havingValue = "local")
+public class LocalUploadResourceConfig implements WebMvcConfigurer {
+
+    @Value("${upload.local.directory:${java.io.tmpdir}/barbershop-uploads}")
+    private String directory;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = Paths.get(directory).toAbsolutePath().normalize().toUri().toString();
+        registry.addResourceHandler("/uploads/**")
+            .addResourceLocations(location.endsWith("/") ? location : location + "/");
+    }
+}
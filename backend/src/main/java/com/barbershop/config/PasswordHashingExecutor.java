@@ -0,0 +1,198 @@
+package com.barbershop.config;
+
+import com.barbershop.exception.HashingCapacityExceededException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor dedicado al hashing de contraseñas.
+ *
+ * Limita cuántos hashes se calculan a la vez (por defecto uno por CPU) y cuántos
+ * esperan en cola. Con la cola llena las peticiones se rechazan al momento con
+ * {@link HashingCapacityExceededException} (HTTP 429) en lugar de acumular hilos
+ * de Tomcat esperando CPU. Solo se envía aquí el cálculo del hash
+ * (ver {@link BoundedPasswordEncoder}); el resto del login o del registro, con sus
+ * accesos a base de datos, sigue en el hilo de la petición.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Value("${security.password.hashing.threads:0}") // 0 = número de CPUs
+    private int threads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.hashing.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    // Métricas
+    private final LatencyStats hashTime = new LatencyStats();
+    private final LatencyStats queueWait = new LatencyStats();
+    private final LatencyStats totalLatency = new LatencyStats();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong cancelledBeforeStart = new AtomicLong();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+
+    public PasswordHashingExecutor() {
+    }
+
+    PasswordHashingExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new HashingThread(runnable, "password-hash-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Ejecuta la tarea en el pool y espera su resultado, o en línea si ya se está
+     * en un hilo del pool. Lanza {@link HashingCapacityExceededException} si la cola
+     * está llena o si el resultado no llega en el plazo configurado.
+     */
+    public <T> T call(Supplier<T> task) {
+        if (Thread.currentThread() instanceof HashingThread) {
+            return timed(task);
+        }
+
+        long enqueuedAt = System.nanoTime();
+        FutureTask<T> future = new FutureTask<>(() -> {
+            queueWait.record(System.nanoTime() - enqueuedAt);
+            try {
+                return timed(task);
+            } finally {
+                // Los hilos del pool se reutilizan: no deben conservar el contexto de seguridad
+                SecurityContextHolder.clearContext();
+            }
+        });
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new HashingCapacityExceededException("Password hashing capacity exceeded, try again later");
+        }
+        peakQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password hashing interrupted");
+        } catch (TimeoutException e) {
+            // Si aún estaba en cola se retira y libera su hueco; si ya se ejecuta, el
+            // hash no atiende interrupciones y termina, pero su resultado se descarta
+            future.cancel(false);
+            if (executor.remove(future)) {
+                cancelledBeforeStart.incrementAndGet();
+            }
+            timedOut.incrementAndGet();
+            throw new HashingCapacityExceededException("Password hashing timed out, try again later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            totalLatency.record(System.nanoTime() - enqueuedAt);
+        }
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            hashTime.record(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("poolSize", executor.getMaximumPoolSize());
+        metrics.put("activeThreads", executor.getActiveCount());
+        metrics.put("queueDepth", executor.getQueue().size());
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("peakQueueDepth", peakQueueDepth.get());
+        metrics.put("completedTasks", executor.getCompletedTaskCount());
+        metrics.put("rejectedTasks", rejected.get());
+        metrics.put("timedOutTasks", timedOut.get());
+        metrics.put("cancelledBeforeStart", cancelledBeforeStart.get());
+        metrics.put("hashCount", hashTime.count());
+        metrics.put("averageHashMillis", hashTime.averageMillis());
+        metrics.put("maxHashMillis", hashTime.maxMillis());
+        metrics.put("averageQueueWaitMillis", queueWait.averageMillis());
+        metrics.put("maxQueueWaitMillis", queueWait.maxMillis());
+        // Desde que se encola hasta que el llamante obtiene el resultado (o agota el plazo)
+        metrics.put("averageTotalMillis", totalLatency.averageMillis());
+        metrics.put("maxTotalMillis", totalLatency.maxMillis());
+        return metrics;
+    }
+
+    private static final class LatencyStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        long count() {
+            return count.get();
+        }
+
+        double averageMillis() {
+            long n = count.get();
+            return n > 0 ? totalNanos.get() / n / 1_000_000.0 : 0.0;
+        }
+
+        double maxMillis() {
+            return maxNanos.get() / 1_000_000.0;
+        }
+    }
+
+    private static final class HashingThread extends Thread {
+        HashingThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.barbershop.config;
+
+import com.barbershop.entity.TokenBlacklist;
+import com.barbershop.repository.TokenBlacklistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caché local de la tabla token_blacklist para no consultar la base de datos
+ * en cada petición autenticada.
+ *
+ * Un filtro de Bloom contiene todos los tokens revocados y responde los negativos
+ * sin ir a la base de datos. Los positivos se confirman contra un conjunto acotado
+ * de huellas SHA-256 con su fecha de expiración; solo si la huella ya no está en
+ * ese conjunto (desalojada o falso positivo del filtro) se consulta el repositorio.
+ */
+@Component
+public class TokenBlacklistCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistCache.class);
+
+    private static final int BLOOM_BITS = 1 << 22; // 4M bits = 512 KB
+    private static final int BLOOM_HASHES = 7;
+
+    @Autowired
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Value("${jwt.blacklist-cache.max-entries:100000}")
+    private int maxEntries;
+
+    // Huella del token -> expiración en milisegundos
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    private volatile AtomicLongArray bloom = new AtomicLongArray(BLOOM_BITS / 64);
+
+    // Hasta completar la carga inicial todas las consultas van a la base de datos
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        logger.info("Token blacklist cache loaded with {} entries", entries.size());
+    }
+
+    /**
+     * Reconstruye el filtro y el conjunto desde la base de datos, descartando
+     * los tokens ya expirados. Conviene llamarlo tras purgar la tabla.
+     */
+    public synchronized void rebuild() {
+        AtomicLongArray fresh = new AtomicLongArray(BLOOM_BITS / 64);
+        entries.clear();
+        for (TokenBlacklist token : tokenBlacklistRepository.findByExpiryDateAfter(LocalDateTime.now())) {
+            addToBloom(fresh, token.getTokenHash());
+            entries.put(TokenDigest.hex(token.getTokenHash()), toEpochMillis(token.getExpiryDate()));
+        }
+        bloom = fresh;
+        evictIfFull();
+        loaded = true;
+    }
+
+    /**
+     * Registra un token recién revocado a partir de su huella SHA-256. Debe
+     * llamarse después de guardarlo en token_blacklist.
+     */
+    public synchronized void add(byte[] digest, LocalDateTime expiryDate) {
+        entries.put(TokenDigest.hex(digest), toEpochMillis(expiryDate));
+        addToBloom(bloom, digest);
+        evictIfFull();
+    }
+
+    public boolean isBlacklisted(String token) {
+        return isBlacklisted(TokenDigest.sha256(token));
+    }
+
+    // Consulta por huella ya calculada, para no repetir el SHA-256 en cada comprobación
+    public boolean isBlacklisted(byte[] digest) {
+        if (!loaded) {
+            return tokenBlacklistRepository.existsByTokenHash(digest);
+        }
+
+        if (!mightContain(bloom, digest)) {
+            return false;
+        }
+
+        String key = TokenDigest.hex(digest);
+        Long expiry = entries.get(key);
+        if (expiry != null) {
+            if (expiry > System.currentTimeMillis()) {
+                return true;
+            }
+            entries.remove(key, expiry);
+            return false;
+        }
+
+        return tokenBlacklistRepository.existsByTokenHash(digest);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(expiry -> expiry <= now);
+
+        // Si sigue lleno se desalojan entradas vigentes: el filtro de Bloom las
+        // sigue marcando, así que se resolverán contra la base de datos
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static void addToBloom(AtomicLongArray bits, byte[] digest) {
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        long h1 = buffer.getLong();
+        long h2 = buffer.getLong();
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) BLOOM_BITS);
+            long mask = 1L << (bit & 63);
+            bits.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+        }
+    }
+
+    private static boolean mightContain(AtomicLongArray bits, byte[] digest) {
+        ByteBuffer buffer = ByteBuffer.wrap(digest);
+        long h1 = buffer.getLong();
+        long h2 = buffer.getLong();
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) BLOOM_BITS);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
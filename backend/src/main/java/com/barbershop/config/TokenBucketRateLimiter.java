@@ -0,0 +1,150 @@
+package com.barbershop.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitador token bucket en memoria, por clave.
+ *
+ * Cada clave guarda un único long (algoritmo GCRA): el instante teórico en que el
+ * cubo volvería a estar lleno. Consumir un token es un compareAndSet sobre ese
+ * valor, sin bloqueos. Las claves se reparten entre varios mapas para que la
+ * limpieza de cubos inactivos recorra solo una parte.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int SHARDS = 16;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxKeysPerShard;
+    private final LongSupplier clock;
+
+    private final List<Map<String, AtomicLong>> shards = new ArrayList<>(SHARDS);
+
+    /**
+     * @param capacity        tokens disponibles de golpe (ráfaga)
+     * @param refillPerMinute tokens que se recuperan por minuto
+     * @param maxKeys         claves que se mantienen en memoria como máximo
+     */
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        this(capacity, refillPerMinute, maxKeys, System::nanoTime);
+    }
+
+    // Reloj inyectable (en nanosegundos) para las pruebas
+    TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxKeys, LongSupplier clock) {
+        this.clock = clock;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+        this.burstNanos = intervalNanos * Math.max(1, capacity);
+        this.maxKeysPerShard = Math.max(1, maxKeys / SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Consume un token de la clave. Devuelve 0 si se permite la petición o, si no,
+     * los nanosegundos que faltan para que haya un token disponible.
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong fullAt = bucket(key, now);
+        while (true) {
+            long current = fullAt.get();
+            long wait = waitFor(current, now);
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, Math.max(current, now) + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Como {@link #tryAcquire(String)} pero sin consumir el token ni registrar la clave:
+     * devuelve 0 si ahora mismo habría un token disponible o, si no, los nanosegundos que faltan.
+     */
+    public long peek(String key) {
+        AtomicLong fullAt = shard(key).get(key);
+        return fullAt != null ? waitFor(fullAt.get(), clock.getAsLong()) : 0;
+    }
+
+    private long waitFor(long fullAt, long now) {
+        return Math.max(0, Math.max(fullAt, now) + intervalNanos - now - burstNanos);
+    }
+
+    private Map<String, AtomicLong> shard(String key) {
+        return shards.get((key.hashCode() ^ (key.hashCode() >>> 16)) & (SHARDS - 1));
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        Map<String, AtomicLong> shard = shard(key);
+        AtomicLong fullAt = shard.get(key);
+        if (fullAt != null) {
+            return fullAt;
+        }
+        if (shard.size() >= maxKeysPerShard) {
+            evict(shard, now);
+        }
+        AtomicLong created = new AtomicLong(now);
+        AtomicLong existing = shard.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    // Número de claves en memoria
+    int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Libera sitio en un mapa lleno. Un cubo que ya se ha rellenado equivale a uno nuevo,
+     * así que se olvida sin más. Si aun así no hay sitio se desalojan los cubos con el
+     * fullAt más antiguo, que son los que menos tokens tienen gastados: crear claves
+     * nuevas en masa no permite reiniciar el cubo de una clave que se está frenando,
+     * porque esa tiene el fullAt más lejano. Se libera un octavo del mapa de una vez para
+     * que el recorrido se amortice entre las siguientes claves nuevas.
+     */
+    private void evict(Map<String, AtomicLong> shard, long now) {
+        synchronized (shard) {
+            if (shard.size() < maxKeysPerShard) {
+                return; // Otro hilo ya ha hecho sitio
+            }
+            shard.values().removeIf(fullAt -> fullAt.get() <= now);
+
+            int target = maxKeysPerShard - Math.max(1, maxKeysPerShard / 8);
+            if (shard.size() <= target) {
+                return;
+            }
+            List<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(shard.size());
+            long[] snapshot = new long[shard.size()];
+            for (Map.Entry<String, AtomicLong> entry : shard.entrySet()) {
+                if (entries.size() == snapshot.length) {
+                    break;
+                }
+                snapshot[entries.size()] = entry.getValue().get();
+                entries.add(entry);
+            }
+            Integer[] order = new Integer[entries.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> snapshot[i]));
+            for (int i = 0; i < order.length && shard.size() > target; i++) {
+                Map.Entry<String, AtomicLong> entry = entries.get(order[i]);
+                shard.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
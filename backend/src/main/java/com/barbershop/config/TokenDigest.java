@@ -0,0 +1,31 @@
+package com.barbershop.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Huella SHA-256 de un token JWT. Permite indexar tokens en memoria
+ * sin guardar ni comparar la cadena completa.
+ */
+public final class TokenDigest {
+
+    private TokenDigest() {}
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    public static String hex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    public static String sha256Hex(String token) {
+        return hex(sha256(token));
+    }
+}
@@ -0,0 +1,64 @@
+package com.barbershop.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migra token_blacklist y refresh_tokens del token completo (columna TEXT) a su
+ * huella SHA-256 (token_hash). ddl-auto añade la columna nueva pero no rellena
+ * ni borra la antigua, así que aquí se calcula la huella en PostgreSQL para las
+ * filas existentes y se elimina la columna token junto con sus índices.
+ * Se ejecuta al terminar de crear los singletons, antes de que arranque el servidor
+ * web y acepte peticiones, y no hace nada si ya se migró.
+ */
+@Component
+public class TokenHashMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenHashMigration.class);
+
+    private static final String[] TABLES = { "token_blacklist", "refresh_tokens" };
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> migrate());
+    }
+
+    private void migrate() {
+        for (String table : TABLES) {
+            if (hasColumn(table, "token")) {
+                int updated = entityManager.createNativeQuery(
+                    "UPDATE " + table + " SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL")
+                    .executeUpdate();
+                entityManager.createNativeQuery("ALTER TABLE " + table + " DROP COLUMN token").executeUpdate();
+                logger.info("Migrated {} rows of {} to token_hash", updated, table);
+            }
+            if (hasColumn(table, "token_hash")) {
+                entityManager.createNativeQuery("ALTER TABLE " + table + " ALTER COLUMN token_hash SET NOT NULL")
+                    .executeUpdate();
+            }
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        Number count = (Number) entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = :table AND column_name = :column")
+            .setParameter("table", table)
+            .setParameter("column", column)
+            .getSingleResult();
+        return count.intValue() > 0;
+    }
+}
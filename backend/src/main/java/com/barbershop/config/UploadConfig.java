@@ -0,0 +1,34 @@
+package com.barbershop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class UploadConfig {
+
+    @Value("${upload.executor.pool-size:4}")
+    private int poolSize;
+
+    @Value("${upload.executor.queue-capacity:50}")
+    private int queueCapacity;
+
+    /**
+     * Ejecutor acotado para las subidas al almacenamiento remoto. Con la cola llena
+     * rechaza la tarea en lugar de crecer, así las subidas lentas no ocupan hilos
+     * de Tomcat ni acumulan ficheros sin límite.
+     */
+    @Bean(name = "uploadExecutor")
+    public ThreadPoolTaskExecutor uploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
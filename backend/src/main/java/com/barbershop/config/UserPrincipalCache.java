@@ -0,0 +1,123 @@
+package com.barbershop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Caché acotada y con TTL de los UserDetails por email, para que el filtro JWT
+ * no cargue el usuario y su rol de la base de datos en cada petición.
+ *
+ * Los servicios que modifican usuarios deben llamar a {@link #invalidate(String)}
+ * con el email afectado.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Generación por email (repartida en franjas para acotar la memoria); invalidate la incrementa
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public UserPrincipalCache() {
+    }
+
+    UserPrincipalCache(long ttlSeconds, int maxEntries) {
+        this.ttlSeconds = ttlSeconds;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Devuelve el principal en caché o lo carga. Si el email se invalida mientras se
+     * carga (por ejemplo, el commit de una desactivación llega entre la lectura y el
+     * put), el valor cargado puede ser anterior al cambio y no se conserva.
+     */
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.principal;
+        }
+
+        int stripe = stripe(email);
+        long generation = generations.get(stripe);
+        UserDetails principal = loader.apply(email);
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        Entry loaded = new Entry(principal, now + ttlSeconds * 1000);
+        entries.put(email, loaded);
+
+        // Se comprueba después del put: invalidate incrementa antes de borrar, así que
+        // o bien su borrado llega después del put, o bien aquí se ve la nueva generación
+        if (generations.get(stripe) != generation) {
+            entries.remove(email, loaded);
+        }
+        return principal;
+    }
+
+    /**
+     * Elimina la entrada del email. Si hay una transacción en curso se vuelve a
+     * eliminar tras el commit, para que una petición concurrente no deje en caché
+     * los datos anteriores al cambio.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    private void evict(String email) {
+        generations.incrementAndGet(stripe(email));
+        entries.remove(email);
+    }
+
+    private static int stripe(String email) {
+        int hash = email.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static class Entry {
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
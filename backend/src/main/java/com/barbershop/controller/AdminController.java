@@ -1,20 +1,25 @@
 package com.barbershop.controller;
 
+import com.barbershop.config.PasswordHashingExecutor;
 import com.barbershop.dto.*;
 import com.barbershop.entity.AppointmentStatus;
 import com.barbershop.entity.ServiceCategory;
 import com.barbershop.service.*;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/admin")
@@ -37,6 +42,18 @@ public class AdminController {
     @Autowired
     private ScheduleService scheduleService;
 
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private TokenMaintenanceService tokenMaintenanceService;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     // ===== DASHBOARD STATS =====
     @GetMapping("/dashboard/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
@@ -67,6 +84,27 @@ public class AdminController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    // Listado paginado: sort = id|name|email|createdAt, direction = asc|desc
+    @GetMapping("/users/page")
+    public ResponseEntity<UserPageDto> getUserPage(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo,
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        UserSearchCriteria criteria = new UserSearchCriteria();
+        criteria.setRole(role != null ? role.toUpperCase() : null);
+        criteria.setIsActive(active);
+        criteria.setCreatedFrom(createdFrom != null ? LocalDate.parse(createdFrom) : null);
+        criteria.setCreatedTo(createdTo != null ? LocalDate.parse(createdTo) : null);
+        criteria.setSortBy(sort);
+        criteria.setDescending("desc".equalsIgnoreCase(direction));
+        return ResponseEntity.ok(userService.getUserPage(criteria, page, size));
+    }
+
     @PostMapping("/users")
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody CreateUserRequestDto request) {
         UserDto user = userService.createUser(request);
@@ -197,6 +235,53 @@ public class AdminController {
         return ResponseEntity.ok(appointmentService.getAllAppointments());
     }
 
+    @GetMapping("/appointments/search")
+    public ResponseEntity<AppointmentPageDto> searchAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) Long barberId,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setBarberId(barberId);
+        criteria.setClientId(clientId);
+        criteria.setServiceId(serviceId);
+        criteria.setStartDate(startDate != null ? LocalDate.parse(startDate) : null);
+        criteria.setEndDate(endDate != null ? LocalDate.parse(endDate) : null);
+        criteria.setDescending("desc".equalsIgnoreCase(direction));
+        return ResponseEntity.ok(appointmentService.searchAppointments(criteria, cursor, limit));
+    }
+
+    // Exportación completa en streaming: format = csv|ndjson
+    @GetMapping("/appointments/export")
+    public void exportAppointments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) Long barberId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            HttpServletResponse response) throws IOException {
+        if (!"csv".equalsIgnoreCase(format) && !"ndjson".equalsIgnoreCase(format)) {
+            throw new RuntimeException("Invalid export format: " + format);
+        }
+
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setBarberId(barberId);
+        criteria.setStartDate(startDate != null ? LocalDate.parse(startDate) : null);
+        criteria.setEndDate(endDate != null ? LocalDate.parse(endDate) : null);
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"appointments." + (csv ? "csv" : "ndjson") + "\"");
+        appointmentService.exportAppointments(criteria, format, response.getOutputStream());
+    }
+
     @GetMapping("/appointments/upcoming")
     public ResponseEntity<List<AppointmentDto>> getUpcomingAppointments() {
         return ResponseEntity.ok(appointmentService.getUpcomingAppointments());
@@ -228,6 +313,18 @@ public class AdminController {
         return ResponseEntity.ok().build();
     }
 
+    // ===== SEARCH =====
+    // Búsqueda unificada por relevancia; types = user,service,barber (por defecto todos)
+    @GetMapping("/search")
+    public ResponseEntity<SearchPageDto> search(
+            @RequestParam String q,
+            @RequestParam(required = false) Set<String> types,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Set<String> searchTypes = types == null || types.isEmpty() ? SearchService.ALL_TYPES : types;
+        return ResponseEntity.ok(searchService.search(q, searchTypes, page, size));
+    }
+
     // ===== REPORTS =====
     @GetMapping("/reports/revenue")
     public ResponseEntity<Map<String, Object>> getRevenueReport(
@@ -247,6 +344,48 @@ public class AdminController {
         return ResponseEntity.ok(report);
     }
 
+    // Reporte de ingresos agrupado: groupBy = none|barber|service|category, bucket = none|day|week|month
+    @GetMapping("/reports/analytics")
+    public ResponseEntity<RevenueAnalyticsDto> getRevenueAnalytics(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "none") String groupBy,
+            @RequestParam(defaultValue = "none") String bucket) {
+        LocalDate start = LocalDate.parse(startDate);
+        LocalDate end = LocalDate.parse(endDate);
+        return ResponseEntity.ok(appointmentStatsService.getRevenueAnalytics(start, end, groupBy, bucket));
+    }
+
+    // ===== MAINTENANCE =====
+
+    // Métricas de la purga periódica de tokens expirados
+    @GetMapping("/maintenance/token-purge")
+    public ResponseEntity<Map<String, Object>> getTokenPurgeMetrics() {
+        return ResponseEntity.ok(tokenMaintenanceService.getMetrics());
+    }
+
+    // Lanza la purga en el momento; 409 si ya hay una en curso
+    @PostMapping("/maintenance/token-purge")
+    public ResponseEntity<Map<String, Object>> runTokenPurge() {
+        if (!tokenMaintenanceService.purgeExpiredTokens()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(tokenMaintenanceService.getMetrics());
+        }
+        return ResponseEntity.ok(tokenMaintenanceService.getMetrics());
+    }
+
+    // Recalcula los agregados diarios de citas desde la tabla de citas
+    @PostMapping("/maintenance/appointment-stats/reconcile")
+    public ResponseEntity<Void> reconcileAppointmentStats() {
+        appointmentStatsService.reconcile();
+        return ResponseEntity.ok().build();
+    }
+
+    // Latencia de hashing y ocupación del pool de contraseñas
+    @GetMapping("/maintenance/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingMetrics() {
+        return ResponseEntity.ok(passwordHashingExecutor.getMetrics());
+    }
+
     // ===== SCHEDULE MANAGEMENT =====
 
     // Obtener horario semanal de un barbero
@@ -359,9 +498,26 @@ public class AdminController {
     @GetMapping("/barbers/{barberId}/available-slots")
     public ResponseEntity<List<java.time.LocalTime>> getAvailableTimeSlots(
             @PathVariable Long barberId,
-            @RequestParam String date) {
+            @RequestParam String date,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer duration) {
         LocalDate appointmentDate = LocalDate.parse(date);
-        List<java.time.LocalTime> slots = scheduleService.getAvailableTimeSlots(barberId, appointmentDate);
+        Integer slotDuration = scheduleService.resolveSlotDuration(serviceId, duration);
+        List<java.time.LocalTime> slots = scheduleService.getAvailableTimeSlots(barberId, appointmentDate, slotDuration);
         return ResponseEntity.ok(slots);
     }
+
+    // Matriz de disponibilidad de varios barberos para un rango de fechas
+    @GetMapping("/availability")
+    public ResponseEntity<List<BarberAvailabilityDto>> getAvailabilityGrid(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) List<Long> barberIds,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer duration) {
+        LocalDate start = LocalDate.parse(startDate);
+        LocalDate end = LocalDate.parse(endDate);
+        Integer slotDuration = scheduleService.resolveSlotDuration(serviceId, duration);
+        return ResponseEntity.ok(scheduleService.getAvailabilityGrid(barberIds, start, end, slotDuration));
+    }
 }
\ No newline at end of file
@@ -1,14 +1,19 @@
 package com.barbershop.controller;
 
+import com.barbershop.config.AuthRateLimiter;
 import com.barbershop.dto.AuthResponseDto;
 import com.barbershop.dto.LoginRequestDto;
 import com.barbershop.dto.RegisterRequestDto;
+import com.barbershop.exception.HashingCapacityExceededException;
+import com.barbershop.exception.RefreshTokenAlreadyRotatedException;
 import com.barbershop.service.AuthService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,24 +25,40 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    // Antes se aplican los límites por IP y por email, sin tocar base de datos ni CPU de hashing.
+    // El endpoint es síncrono: el hilo de la petición espera a que el pool acotado
+    // (BoundedPasswordEncoder) calcule el hash, como mucho security.password.hashing.timeout-ms.
+    // Si el pool está saturado se responde 429 al momento. Spring Security envuelve ese rechazo
+    // en una AuthenticationException; cualquier otro error llega a GlobalExceptionHandler
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public ResponseEntity<AuthResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest,
+                                                 HttpServletRequest request) {
+        long retryAfter = authRateLimiter.checkLogin(request, loginRequest.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
         try {
             AuthResponseDto response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+        } catch (AuthenticationException e) {
+            return isHashingCapacityExceeded(e) ? tooManyRequests(1) : ResponseEntity.badRequest().build();
         }
     }
 
+    // Síncrono igual que login. Email repetido, pool de hashing saturado y errores de
+    // base de datos se traducen en GlobalExceptionHandler (400, 429 y 500)
     @PostMapping("/register")
-    public ResponseEntity<AuthResponseDto> register(@Valid @RequestBody RegisterRequestDto registerRequest) {
-        try {
-            AuthResponseDto response = authService.register(registerRequest);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
+    public ResponseEntity<AuthResponseDto> register(@Valid @RequestBody RegisterRequestDto registerRequest,
+                                                    HttpServletRequest request) {
+        long retryAfter = authRateLimiter.checkRegister(request, registerRequest.getEmail());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
         }
+        AuthResponseDto response = authService.register(registerRequest);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/hash-password")
@@ -63,6 +84,9 @@ public class AuthController {
             }
             AuthResponseDto response = authService.refreshToken(request.getRefreshToken());
             return ResponseEntity.ok(response);
+        } catch (RefreshTokenAlreadyRotatedException e) {
+            // Otra petición del mismo cliente ya obtuvo el sucesor: no es un logout
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
@@ -99,6 +123,22 @@ public class AuthController {
         }
     }
 
+    // Spring Security envuelve el rechazo del pool (InternalAuthenticationServiceException)
+    private static boolean isHashingCapacityExceeded(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HashingCapacityExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<AuthResponseDto> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .build();
+    }
+
     // Helper DTO for refresh token request
     public static class RefreshTokenRequest {
         private String refreshToken;
@@ -2,6 +2,8 @@ package com.barbershop.controller;
 
 import com.barbershop.config.UserPrincipal;
 import com.barbershop.dto.AppointmentDto;
+import com.barbershop.dto.AppointmentPageDto;
+import com.barbershop.dto.AppointmentSearchCriteria;
 import com.barbershop.dto.BarberDto;
 import com.barbershop.dto.BarberScheduleDto;
 import com.barbershop.dto.BarberExceptionDto;
@@ -10,6 +12,7 @@ import com.barbershop.service.AppointmentService;
 import com.barbershop.service.BarberService;
 import com.barbershop.service.ScheduleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -45,13 +48,31 @@ public class BarberController {
         return ResponseEntity.ok(appointmentService.getAppointmentsByBarber(currentUser.getId()));
     }
 
+    @GetMapping("/appointments/search")
+    public ResponseEntity<AppointmentPageDto> searchMyAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria();
+        criteria.setStatus(status);
+        criteria.setBarberId(currentUser.getId());
+        criteria.setClientId(clientId);
+        criteria.setServiceId(serviceId);
+        criteria.setStartDate(startDate != null ? LocalDate.parse(startDate) : null);
+        criteria.setEndDate(endDate != null ? LocalDate.parse(endDate) : null);
+        criteria.setDescending("desc".equalsIgnoreCase(direction));
+        return ResponseEntity.ok(appointmentService.searchAppointments(criteria, cursor, limit));
+    }
+
     @GetMapping("/appointments/today")
     public ResponseEntity<List<AppointmentDto>> getTodayAppointments(@AuthenticationPrincipal UserPrincipal currentUser) {
-        List<AppointmentDto> allAppointments = appointmentService.getAppointmentsByBarber(currentUser.getId());
-        List<AppointmentDto> todayAppointments = allAppointments.stream()
-                .filter(appointment -> appointment.getDate().equals(LocalDate.now()))
-                .toList();
-        return ResponseEntity.ok(todayAppointments);
+        return ResponseEntity.ok(appointmentService.getAppointmentsByBarberAndDate(currentUser.getId(), LocalDate.now()));
     }
 
     @GetMapping("/appointments/date/{date}")
@@ -59,11 +80,16 @@ public class BarberController {
             @PathVariable String date,
             @AuthenticationPrincipal UserPrincipal currentUser) {
         LocalDate appointmentDate = LocalDate.parse(date);
-        List<AppointmentDto> allAppointments = appointmentService.getAppointmentsByBarber(currentUser.getId());
-        List<AppointmentDto> dateAppointments = allAppointments.stream()
-                .filter(appointment -> appointment.getDate().equals(appointmentDate))
-                .toList();
-        return ResponseEntity.ok(dateAppointments);
+        return ResponseEntity.ok(appointmentService.getAppointmentsByBarberAndDate(currentUser.getId(), appointmentDate));
+    }
+
+    // Rango acotado (ver AppointmentService); para el historial completo está /appointments/search
+    @GetMapping("/appointments/range")
+    public ResponseEntity<List<AppointmentDto>> getAppointmentsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsByBarberAndDateRange(currentUser.getId(), startDate, endDate));
     }
 
     @PutMapping("/appointments/{id}/confirm")
@@ -119,10 +145,13 @@ public class BarberController {
     @GetMapping("/available-slots")
     public ResponseEntity<List<java.time.LocalTime>> getMyAvailableTimeSlots(
             @RequestParam String date,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer duration,
             @AuthenticationPrincipal UserPrincipal currentUser) {
         BarberDto barber = barberService.getBarberByUserId(currentUser.getId());
         LocalDate appointmentDate = LocalDate.parse(date);
-        List<java.time.LocalTime> slots = scheduleService.getAvailableTimeSlots(barber.getId(), appointmentDate);
+        Integer slotDuration = scheduleService.resolveSlotDuration(serviceId, duration);
+        List<java.time.LocalTime> slots = scheduleService.getAvailableTimeSlots(barber.getId(), appointmentDate, slotDuration);
         return ResponseEntity.ok(slots);
     }
 }
\ No newline at end of file
@@ -2,8 +2,10 @@ package com.barbershop.controller;
 
 import com.barbershop.config.UserPrincipal;
 import com.barbershop.dto.AppointmentDto;
+import com.barbershop.dto.BarberAvailabilityDto;
 import com.barbershop.dto.CreateAppointmentRequestDto;
 import com.barbershop.service.AppointmentService;
+import com.barbershop.service.ScheduleService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,6 +25,9 @@ public class ClientController {
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private ScheduleService scheduleService;
+
     // ===== APPOINTMENT MANAGEMENT =====
     @GetMapping("/appointments")
     public ResponseEntity<List<AppointmentDto>> getMyAppointments(@AuthenticationPrincipal UserPrincipal currentUser) {
@@ -57,4 +63,18 @@ public class ClientController {
         appointmentService.cancelAppointment(id, reason != null ? reason : "Cancelled by client");
         return ResponseEntity.ok().build();
     }
+
+    // ===== AVAILABILITY =====
+    @GetMapping("/availability")
+    public ResponseEntity<List<BarberAvailabilityDto>> getAvailabilityGrid(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) List<Long> barberIds,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) Integer duration) {
+        LocalDate start = LocalDate.parse(startDate);
+        LocalDate end = LocalDate.parse(endDate);
+        Integer slotDuration = scheduleService.resolveSlotDuration(serviceId, duration);
+        return ResponseEntity.ok(scheduleService.getAvailabilityGrid(barberIds, start, end, slotDuration));
+    }
 }
\ No newline at end of file
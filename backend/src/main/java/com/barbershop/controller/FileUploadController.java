@@ -1,7 +1,9 @@
 package com.barbershop.controller;
 
-import com.barbershop.service.CloudinaryService;
+import com.barbershop.dto.UploadJobDto;
+import com.barbershop.service.ImageUploadService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +11,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/admin/upload")
@@ -16,38 +20,72 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class FileUploadController {
 
+    private static final Map<String, String> FOLDERS = Map.of(
+        "service", "barbershop/services",
+        "barber", "barbershop/barbers"
+    );
+
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private ImageUploadService imageUploadService;
 
+    // Mantienen la respuesta {url}: la petición se resuelve de forma asíncrona,
+    // sin retener el hilo de Tomcat mientras se sube la imagen
     @PostMapping("/service-image")
-    public ResponseEntity<Map<String, String>> uploadServiceImage(@RequestParam("file") MultipartFile file) {
-        try {
-            String imageUrl = cloudinaryService.uploadFile(file, "barbershop/services");
+    public CompletableFuture<ResponseEntity<Map<String, String>>> uploadServiceImage(@RequestParam("file") MultipartFile file) {
+        return uploadAndRespond(file, FOLDERS.get("service"));
+    }
 
-            Map<String, String> response = new HashMap<>();
-            response.put("url", imageUrl);
+    @PostMapping("/barber-image")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> uploadBarberImage(@RequestParam("file") MultipartFile file) {
+        return uploadAndRespond(file, FOLDERS.get("barber"));
+    }
 
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error uploading image: " + e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+    // Subida por trabajos: devuelve 202 con el ID, que se consulta en /jobs/{jobId}
+    @PostMapping("/jobs")
+    public ResponseEntity<UploadJobDto> createUploadJob(@RequestParam("file") MultipartFile file,
+                                                        @RequestParam(defaultValue = "service") String target) {
+        String folder = FOLDERS.get(target);
+        if (folder == null) {
+            throw new RuntimeException("Invalid upload target: " + target);
         }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(imageUploadService.submit(file, folder));
     }
 
-    @PostMapping("/barber-image")
-    public ResponseEntity<Map<String, String>> uploadBarberImage(@RequestParam("file") MultipartFile file) {
-        try {
-            String imageUrl = cloudinaryService.uploadFile(file, "barbershop/barbers");
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<UploadJobDto> getUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(imageUploadService.getJob(jobId));
+    }
+
+    @PostMapping("/jobs/{jobId}/retry")
+    public ResponseEntity<UploadJobDto> retryUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(imageUploadService.retry(jobId));
+    }
 
+    private CompletableFuture<ResponseEntity<Map<String, String>>> uploadAndRespond(MultipartFile file, String folder) {
+        CompletableFuture<String> upload;
+        try {
+            upload = imageUploadService.submitAndAwait(file, folder);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+        return upload.handle((imageUrl, failure) -> {
+            if (failure != null) {
+                return errorResponse(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure);
+            }
             Map<String, String> response = new HashMap<>();
             response.put("url", imageUrl);
-
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error uploading image: " + e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+        });
+    }
+
+    // Misma correspondencia que GlobalExceptionHandler: la cola llena es un 503, no un error del cliente
+    private static ResponseEntity<Map<String, String>> errorResponse(Throwable e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Error uploading image: " + e.getMessage());
+        if (e.getMessage() != null && e.getMessage().contains("Upload queue is full")) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
         }
+        return ResponseEntity.badRequest().body(error);
     }
 }
@@ -1,15 +1,22 @@
 package com.barbershop.controller;
 
+import com.barbershop.config.CatalogVersion;
 import com.barbershop.dto.BarberDto;
 import com.barbershop.dto.ServiceDto;
 import com.barbershop.entity.ServiceCategory;
 import com.barbershop.service.BarberService;
 import com.barbershop.service.ServiceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/public")
@@ -22,35 +29,63 @@ public class PublicController {
     @Autowired
     private ServiceService serviceService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Value("${catalog.http-cache.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
     // ===== PUBLIC BARBER ENDPOINTS =====
     @GetMapping("/barbers")
-    public ResponseEntity<List<BarberDto>> getAllBarbers() {
-        return ResponseEntity.ok(barberService.getAllActiveBarbers());
+    public ResponseEntity<List<BarberDto>> getAllBarbers(WebRequest request) {
+        return cached(request, catalogVersion.barbersEtag(), () -> barberService.getAllActiveBarbers());
     }
 
     @GetMapping("/barbers/{id}")
-    public ResponseEntity<BarberDto> getBarberById(@PathVariable Long id) {
-        return ResponseEntity.ok(barberService.getBarberById(id));
+    public ResponseEntity<BarberDto> getBarberById(@PathVariable Long id, WebRequest request) {
+        return cached(request, catalogVersion.barbersEtag(), () -> barberService.getBarberById(id));
     }
 
     @GetMapping("/barbers/specialty/{specialty}")
-    public ResponseEntity<List<BarberDto>> getBarbersBySpecialty(@PathVariable String specialty) {
-        return ResponseEntity.ok(barberService.getBarbersBySpecialty(specialty));
+    public ResponseEntity<List<BarberDto>> getBarbersBySpecialty(@PathVariable String specialty, WebRequest request) {
+        return cached(request, catalogVersion.barbersEtag(), () -> barberService.getBarbersBySpecialty(specialty));
+    }
+
+    // Búsqueda por varias especialidades: match = all (todas) o any (alguna)
+    @GetMapping("/barbers/specialties")
+    public ResponseEntity<List<BarberDto>> getBarbersBySpecialties(
+            @RequestParam List<String> names,
+            @RequestParam(defaultValue = "any") String match,
+            WebRequest request) {
+        boolean matchAll = "all".equalsIgnoreCase(match);
+        return cached(request, catalogVersion.barbersEtag(), () -> barberService.getBarbersBySpecialties(names, matchAll));
     }
 
     // ===== PUBLIC SERVICE ENDPOINTS =====
     @GetMapping("/services")
-    public ResponseEntity<List<ServiceDto>> getAllServices() {
-        return ResponseEntity.ok(serviceService.getAllActiveServices());
+    public ResponseEntity<List<ServiceDto>> getAllServices(WebRequest request) {
+        return cached(request, catalogVersion.servicesEtag(), () -> serviceService.getAllActiveServices());
     }
 
     @GetMapping("/services/{id}")
-    public ResponseEntity<ServiceDto> getServiceById(@PathVariable Long id) {
-        return ResponseEntity.ok(serviceService.getServiceById(id));
+    public ResponseEntity<ServiceDto> getServiceById(@PathVariable Long id, WebRequest request) {
+        return cached(request, catalogVersion.servicesEtag(), () -> serviceService.getServiceById(id));
     }
 
     @GetMapping("/services/category/{category}")
-    public ResponseEntity<List<ServiceDto>> getServicesByCategory(@PathVariable ServiceCategory category) {
-        return ResponseEntity.ok(serviceService.getServicesByCategory(category));
+    public ResponseEntity<List<ServiceDto>> getServicesByCategory(@PathVariable ServiceCategory category, WebRequest request) {
+        return cached(request, catalogVersion.servicesEtag(), () -> serviceService.getServicesByCategory(category));
+    }
+
+    /**
+     * Responde 304 sin consultar la base de datos si el cliente ya tiene la versión
+     * actual del catálogo; si no, genera el cuerpo y lo devuelve con su ETag.
+     */
+    private <T> ResponseEntity<T> cached(WebRequest request, String etag, Supplier<T> body) {
+        CacheControl cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
     }
 }
\ No newline at end of file
@@ -40,6 +40,30 @@ public class AppointmentDto {
         this.totalPrice = totalPrice;
     }
 
+    // Usado por las proyecciones JPQL de AppointmentRepository
+    public AppointmentDto(Long id, Long clientId, String clientName, String clientEmail, String clientPhone,
+                          Long barberId, String barberName, Long serviceId, String serviceName,
+                          BigDecimal servicePrice, Integer serviceDuration, LocalDate date, LocalTime time,
+                          AppointmentStatus status, String notes, BigDecimal totalPrice, LocalDateTime createdAt) {
+        this.id = id;
+        this.clientId = clientId;
+        this.clientName = clientName;
+        this.clientEmail = clientEmail;
+        this.clientPhone = clientPhone;
+        this.barberId = barberId;
+        this.barberName = barberName;
+        this.serviceId = serviceId;
+        this.serviceName = serviceName;
+        this.servicePrice = servicePrice;
+        this.serviceDuration = serviceDuration;
+        this.date = date;
+        this.time = time;
+        this.status = status;
+        this.notes = notes;
+        this.totalPrice = totalPrice;
+        this.createdAt = createdAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,31 @@
+package com.barbershop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentPageDto {
+    private List<AppointmentDto> items;
+    private String nextCursor; // null cuando no hay más resultados
+    private boolean hasMore;
+
+    // Constructors
+    public AppointmentPageDto() {}
+
+    public AppointmentPageDto(List<AppointmentDto> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<AppointmentDto> getItems() { return items; }
+    public void setItems(List<AppointmentDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,59 @@
+package com.barbershop.dto;
+
+import com.barbershop.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Filtros y posición (keyset) de una búsqueda paginada de citas.
+ * Los campos nulos no filtran.
+ */
+public class AppointmentSearchCriteria {
+    private AppointmentStatus status;
+    private Long barberId;
+    private Long clientId;
+    private Long serviceId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean descending;
+
+    // Última fila de la página anterior: (date, time, id)
+    private LocalDate afterDate;
+    private LocalTime afterTime;
+    private Long afterId;
+
+    // Constructors
+    public AppointmentSearchCriteria() {}
+
+    // Getters and Setters
+    public AppointmentStatus getStatus() { return status; }
+    public void setStatus(AppointmentStatus status) { this.status = status; }
+
+    public Long getBarberId() { return barberId; }
+    public void setBarberId(Long barberId) { this.barberId = barberId; }
+
+    public Long getClientId() { return clientId; }
+    public void setClientId(Long clientId) { this.clientId = clientId; }
+
+    public Long getServiceId() { return serviceId; }
+    public void setServiceId(Long serviceId) { this.serviceId = serviceId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public boolean isDescending() { return descending; }
+    public void setDescending(boolean descending) { this.descending = descending; }
+
+    public LocalDate getAfterDate() { return afterDate; }
+    public void setAfterDate(LocalDate afterDate) { this.afterDate = afterDate; }
+
+    public LocalTime getAfterTime() { return afterTime; }
+    public void setAfterTime(LocalTime afterTime) { this.afterTime = afterTime; }
+
+    public Long getAfterId() { return afterId; }
+    public void setAfterId(Long afterId) { this.afterId = afterId; }
+}
@@ -0,0 +1,40 @@
+package com.barbershop.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fila de la matriz de disponibilidad: los slots libres de un barbero
+ * para cada día del rango consultado.
+ */
+public class BarberAvailabilityDto {
+    private Long barberId; // ID del perfil de barbero
+    private Long userId; // ID del usuario asociado (para crear citas)
+    private String barberName;
+    private Map<LocalDate, List<LocalTime>> slots = new TreeMap<>();
+
+    // Constructors
+    public BarberAvailabilityDto() {}
+
+    public BarberAvailabilityDto(Long barberId, Long userId, String barberName) {
+        this.barberId = barberId;
+        this.userId = userId;
+        this.barberName = barberName;
+    }
+
+    // Getters and Setters
+    public Long getBarberId() { return barberId; }
+    public void setBarberId(Long barberId) { this.barberId = barberId; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getBarberName() { return barberName; }
+    public void setBarberName(String barberName) { this.barberName = barberName; }
+
+    public Map<LocalDate, List<LocalTime>> getSlots() { return slots; }
+    public void setSlots(Map<LocalDate, List<LocalTime>> slots) { this.slots = slots; }
+}
@@ -0,0 +1,38 @@
+package com.barbershop.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Proyección mínima de una cita reservada: solo lo necesario para
+ * descontarla de la disponibilidad de un barbero.
+ */
+public class BookedSlotDto {
+    private Long barberId;
+    private LocalDate date;
+    private LocalTime time;
+    private Integer duration; // en minutos
+
+    // Constructors
+    public BookedSlotDto() {}
+
+    public BookedSlotDto(Long barberId, LocalDate date, LocalTime time, Integer duration) {
+        this.barberId = barberId;
+        this.date = date;
+        this.time = time;
+        this.duration = duration;
+    }
+
+    // Getters and Setters
+    public Long getBarberId() { return barberId; }
+    public void setBarberId(Long barberId) { this.barberId = barberId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public LocalTime getTime() { return time; }
+    public void setTime(LocalTime time) { this.time = time; }
+
+    public Integer getDuration() { return duration; }
+    public void setDuration(Integer duration) { this.duration = duration; }
+}
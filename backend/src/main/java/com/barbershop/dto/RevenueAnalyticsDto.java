@@ -0,0 +1,43 @@
+package com.barbershop.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RevenueAnalyticsDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String groupBy; // none, barber, service, category
+    private String bucket; // none, day, week, month
+    private RevenueAnalyticsRowDto totals;
+    private List<RevenueAnalyticsRowDto> rows = new ArrayList<>();
+
+    // Constructors
+    public RevenueAnalyticsDto() {}
+
+    public RevenueAnalyticsDto(LocalDate startDate, LocalDate endDate, String groupBy, String bucket) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.groupBy = groupBy;
+        this.bucket = bucket;
+    }
+
+    // Getters and Setters
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+
+    public String getBucket() { return bucket; }
+    public void setBucket(String bucket) { this.bucket = bucket; }
+
+    public RevenueAnalyticsRowDto getTotals() { return totals; }
+    public void setTotals(RevenueAnalyticsRowDto totals) { this.totals = totals; }
+
+    public List<RevenueAnalyticsRowDto> getRows() { return rows; }
+    public void setRows(List<RevenueAnalyticsRowDto> rows) { this.rows = rows; }
+}
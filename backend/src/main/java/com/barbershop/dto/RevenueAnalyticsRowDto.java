@@ -0,0 +1,72 @@
+package com.barbershop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Una fila del reporte de ingresos: métricas de un grupo (barbero, servicio o
+ * categoría) dentro de un intervalo de tiempo (día, semana o mes).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevenueAnalyticsRowDto {
+    private LocalDate bucketStart; // Inicio del intervalo; null si no se agrupa por tiempo
+    private Long groupId; // ID del barbero (usuario) o del servicio; null para categoría o total
+    private String groupName;
+    private long appointmentCount;
+    private long completedCount;
+    private long cancelledCount;
+    private BigDecimal revenue = BigDecimal.ZERO; // Solo citas completadas
+    private BigDecimal averageTicket;
+    private Double cancellationRate;
+    private long bookedMinutes; // Minutos de citas no canceladas
+    private Long availableMinutes; // Minutos de horario de los barberos; null si no aplica
+    private Double utilization;
+
+    // Constructors
+    public RevenueAnalyticsRowDto() {}
+
+    public RevenueAnalyticsRowDto(LocalDate bucketStart, Long groupId, String groupName) {
+        this.bucketStart = bucketStart;
+        this.groupId = groupId;
+        this.groupName = groupName;
+    }
+
+    // Getters and Setters
+    public LocalDate getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDate bucketStart) { this.bucketStart = bucketStart; }
+
+    public Long getGroupId() { return groupId; }
+    public void setGroupId(Long groupId) { this.groupId = groupId; }
+
+    public String getGroupName() { return groupName; }
+    public void setGroupName(String groupName) { this.groupName = groupName; }
+
+    public long getAppointmentCount() { return appointmentCount; }
+    public void setAppointmentCount(long appointmentCount) { this.appointmentCount = appointmentCount; }
+
+    public long getCompletedCount() { return completedCount; }
+    public void setCompletedCount(long completedCount) { this.completedCount = completedCount; }
+
+    public long getCancelledCount() { return cancelledCount; }
+    public void setCancelledCount(long cancelledCount) { this.cancelledCount = cancelledCount; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public BigDecimal getAverageTicket() { return averageTicket; }
+    public void setAverageTicket(BigDecimal averageTicket) { this.averageTicket = averageTicket; }
+
+    public Double getCancellationRate() { return cancellationRate; }
+    public void setCancellationRate(Double cancellationRate) { this.cancellationRate = cancellationRate; }
+
+    public long getBookedMinutes() { return bookedMinutes; }
+    public void setBookedMinutes(long bookedMinutes) { this.bookedMinutes = bookedMinutes; }
+
+    public Long getAvailableMinutes() { return availableMinutes; }
+    public void setAvailableMinutes(Long availableMinutes) { this.availableMinutes = availableMinutes; }
+
+    public Double getUtilization() { return utilization; }
+    public void setUtilization(Double utilization) { this.utilization = utilization; }
+}
@@ -0,0 +1,33 @@
+package com.barbershop.dto;
+
+import java.util.List;
+
+public class SearchPageDto {
+    private List<SearchResultDto> items;
+    private int page;
+    private int size;
+    private long total;
+
+    // Constructors
+    public SearchPageDto() {}
+
+    public SearchPageDto(List<SearchResultDto> items, int page, int size, long total) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+    }
+
+    // Getters and Setters
+    public List<SearchResultDto> getItems() { return items; }
+    public void setItems(List<SearchResultDto> items) { this.items = items; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+}
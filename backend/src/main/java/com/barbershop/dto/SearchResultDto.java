@@ -0,0 +1,39 @@
+package com.barbershop.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResultDto {
+    private String type; // user, service, barber
+    private Long id; // ID del usuario, del servicio o del perfil de barbero
+    private String title;
+    private String subtitle;
+    private double score;
+
+    // Constructors
+    public SearchResultDto() {}
+
+    public SearchResultDto(String type, Long id, String title, String subtitle, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getSubtitle() { return subtitle; }
+    public void setSubtitle(String subtitle) { this.subtitle = subtitle; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
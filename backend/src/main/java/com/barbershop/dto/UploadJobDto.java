@@ -0,0 +1,46 @@
+package com.barbershop.dto;
+
+import java.time.LocalDateTime;
+
+public class UploadJobDto {
+    private String id;
+    private String status; // PENDING, RUNNING, COMPLETED, FAILED
+    private String fileName;
+    private long size;
+    private String url;
+    private String error;
+    private int attempts;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    // Constructors
+    public UploadJobDto() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
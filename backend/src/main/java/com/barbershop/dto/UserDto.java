@@ -26,6 +26,16 @@ public class UserDto {
         this.role = role;
     }
 
+    public UserDto(Long id, String name, String email, String phone, String role, Boolean isActive) {
+        this(id, name, email, phone, role);
+        this.isActive = isActive;
+    }
+
+    public UserDto(Long id, String name, String email, String phone, String role, Boolean isActive, LocalDateTime createdAt) {
+        this(id, name, email, phone, role, isActive);
+        this.createdAt = createdAt;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,38 @@
+package com.barbershop.dto;
+
+import java.util.List;
+
+public class UserPageDto {
+    private List<UserDto> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private boolean totalEstimated; // true si el total sale de las estadísticas de PostgreSQL
+
+    // Constructors
+    public UserPageDto() {}
+
+    public UserPageDto(List<UserDto> items, int page, int size, long totalElements, boolean totalEstimated) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalEstimated = totalEstimated;
+    }
+
+    // Getters and Setters
+    public List<UserDto> getItems() { return items; }
+    public void setItems(List<UserDto> items) { this.items = items; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public long getTotalElements() { return totalElements; }
+    public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
+
+    public boolean isTotalEstimated() { return totalEstimated; }
+    public void setTotalEstimated(boolean totalEstimated) { this.totalEstimated = totalEstimated; }
+}
@@ -0,0 +1,38 @@
+package com.barbershop.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros y orden del listado paginado de usuarios.
+ * Los campos nulos no filtran.
+ */
+public class UserSearchCriteria {
+    private String role; // Nombre del rol: ADMIN, BARBER, CLIENT
+    private Boolean isActive;
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+    private String sortBy = "createdAt"; // id, name, email, createdAt
+    private boolean descending = true;
+
+    // Constructors
+    public UserSearchCriteria() {}
+
+    // Getters and Setters
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public Boolean getIsActive() { return isActive; }
+    public void setIsActive(Boolean isActive) { this.isActive = isActive; }
+
+    public LocalDate getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDate createdFrom) { this.createdFrom = createdFrom; }
+
+    public LocalDate getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDate createdTo) { this.createdTo = createdTo; }
+
+    public String getSortBy() { return sortBy; }
+    public void setSortBy(String sortBy) { this.sortBy = sortBy; }
+
+    public boolean isDescending() { return descending; }
+    public void setDescending(boolean descending) { this.descending = descending; }
+}
@@ -11,7 +11,13 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_date_time", columnList = "date, time, id"),
+    @Index(name = "idx_appointments_barber_date_time", columnList = "barber_id, date, time, id"),
+    @Index(name = "idx_appointments_client_date_time", columnList = "client_id, date, time, id"),
+    @Index(name = "idx_appointments_service_date_time", columnList = "service_id, date, time, id"),
+    @Index(name = "idx_appointments_status_date_time", columnList = "status, date, time, id")
+})
 public class Appointment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
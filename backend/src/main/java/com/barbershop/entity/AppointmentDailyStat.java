@@ -0,0 +1,65 @@
+package com.barbershop.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Agregado diario de citas por barbero, servicio y estado.
+ * Se mantiene de forma incremental desde AppointmentService para que el
+ * dashboard y los reportes no tengan que recorrer la tabla de citas.
+ */
+@Entity
+@Table(name = "appointment_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_appointment_daily_stats_key", columnNames = {"stat_date", "barber_id", "service_id", "status"})
+})
+public class AppointmentDailyStat {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "barber_id", nullable = false)
+    private Long barberId; // ID del usuario barbero
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(name = "appointment_count", nullable = false)
+    private Long appointmentCount = 0L;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO; // Suma de total_price de las citas de este grupo
+
+    // Constructors
+    public AppointmentDailyStat() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getStatDate() { return statDate; }
+    public void setStatDate(LocalDate statDate) { this.statDate = statDate; }
+
+    public Long getBarberId() { return barberId; }
+    public void setBarberId(Long barberId) { this.barberId = barberId; }
+
+    public Long getServiceId() { return serviceId; }
+    public void setServiceId(Long serviceId) { this.serviceId = serviceId; }
+
+    public AppointmentStatus getStatus() { return status; }
+    public void setStatus(AppointmentStatus status) { this.status = status; }
+
+    public Long getAppointmentCount() { return appointmentCount; }
+    public void setAppointmentCount(Long appointmentCount) { this.appointmentCount = appointmentCount; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -6,17 +6,25 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "refresh_tokens", indexes = {
-    @Index(name = "idx_token", columnList = "token"),
-    @Index(name = "idx_user_id", columnList = "user_id")
+@Table(name = "refresh_tokens", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = "token_hash"),
+    @UniqueConstraint(name = "uk_refresh_token_parent_hash", columnNames = "parent_hash")
+}, indexes = {
+    @Index(name = "idx_user_id", columnList = "user_id"),
+    @Index(name = "idx_refresh_token_expiry", columnList = "expiry_date")
 })
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, columnDefinition = "TEXT")
-    private String token;
+    // SHA-256 del JWT (32 bytes); el token completo no se guarda
+    @Column(name = "token_hash", length = 32)
+    private byte[] tokenHash;
+
+    // Huella del token que este sustituyó al rotar; como mucho un sucesor por token
+    @Column(name = "parent_hash", length = 32)
+    private byte[] parentHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -32,11 +40,17 @@ public class RefreshToken {
     @Column(name = "is_revoked")
     private Boolean isRevoked = false;
 
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Column(name = "revoke_reason", length = 20)
+    private String revokeReason; // "login", "rotated", "logout", "reuse"
+
     // Constructors
     public RefreshToken() {}
 
-    public RefreshToken(String token, User user, LocalDateTime expiryDate) {
-        this.token = token;
+    public RefreshToken(byte[] tokenHash, User user, LocalDateTime expiryDate) {
+        this.tokenHash = tokenHash;
         this.user = user;
         this.expiryDate = expiryDate;
     }
@@ -45,8 +59,11 @@ public class RefreshToken {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    public String getToken() { return token; }
-    public void setToken(String token) { this.token = token; }
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
+
+    public byte[] getParentHash() { return parentHash; }
+    public void setParentHash(byte[] parentHash) { this.parentHash = parentHash; }
 
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
@@ -60,6 +77,12 @@ public class RefreshToken {
     public Boolean getIsRevoked() { return isRevoked; }
     public void setIsRevoked(Boolean isRevoked) { this.isRevoked = isRevoked; }
 
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+
+    public String getRevokeReason() { return revokeReason; }
+    public void setRevokeReason(String revokeReason) { this.revokeReason = revokeReason; }
+
     public boolean isExpired() {
         return LocalDateTime.now().isAfter(expiryDate);
     }
@@ -6,8 +6,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "token_blacklist", indexes = {
-    @Index(name = "idx_blacklist_token", columnList = "token"),
+@Table(name = "token_blacklist", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_blacklist_token_hash", columnNames = "token_hash")
+}, indexes = {
     @Index(name = "idx_blacklist_expiry", columnList = "expiry_date")
 })
 public class TokenBlacklist {
@@ -15,8 +16,9 @@ public class TokenBlacklist {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, columnDefinition = "TEXT")
-    private String token;
+    // SHA-256 del JWT (32 bytes); el token completo no se guarda
+    @Column(name = "token_hash", length = 32)
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private LocalDateTime expiryDate;
@@ -31,8 +33,8 @@ public class TokenBlacklist {
     // Constructors
     public TokenBlacklist() {}
 
-    public TokenBlacklist(String token, LocalDateTime expiryDate, String reason) {
-        this.token = token;
+    public TokenBlacklist(byte[] tokenHash, LocalDateTime expiryDate, String reason) {
+        this.tokenHash = tokenHash;
         this.expiryDate = expiryDate;
         this.reason = reason;
     }
@@ -41,8 +43,8 @@ public class TokenBlacklist {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    public String getToken() { return token; }
-    public void setToken(String token) { this.token = token; }
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
 
     public LocalDateTime getExpiryDate() { return expiryDate; }
     public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created_at", columnList = "created_at, id"),
+    @Index(name = "idx_users_role_created_at", columnList = "role_id, created_at, id"),
+    @Index(name = "idx_users_name", columnList = "name, id")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,12 @@
+package com.barbershop.exception;
+
+/**
+ * El ejecutor de hashing de contraseñas está saturado.
+ * Se traduce a HTTP 429 en {@link GlobalExceptionHandler}.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.barbershop.exception;
+
+/**
+ * El refresh token ya se rotó hace menos del margen de gracia: otra petición del
+ * mismo cliente (por ejemplo, otra pestaña) obtuvo su sucesor. No se considera robo,
+ * pero tampoco se emite un segundo sucesor. AuthController lo traduce a HTTP 409.
+ */
+public class RefreshTokenAlreadyRotatedException extends RuntimeException {
+
+    public RefreshTokenAlreadyRotatedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.barbershop.exception;
+
+/**
+ * La franja solicitada se solapa con otra cita del mismo barbero.
+ * Se traduce a HTTP 409 en {@link GlobalExceptionHandler}.
+ */
+public class SlotConflictException extends RuntimeException {
+
+    public SlotConflictException(String message) {
+        super(message);
+    }
+}
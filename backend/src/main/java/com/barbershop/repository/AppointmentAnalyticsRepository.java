@@ -0,0 +1,17 @@
+package com.barbershop.repository;
+
+import com.barbershop.dto.RevenueAnalyticsRowDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AppointmentAnalyticsRepository {
+
+    /**
+     * Agrega appointment_daily_stats en una sola consulta GROUP BY.
+     *
+     * @param groupBy none, barber, service o category
+     * @param bucket  none, day, week o month
+     */
+    List<RevenueAnalyticsRowDto> aggregateStats(LocalDate startDate, LocalDate endDate, String groupBy, String bucket);
+}
@@ -0,0 +1,101 @@
+package com.barbershop.repository;
+
+import com.barbershop.dto.RevenueAnalyticsRowDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AppointmentAnalyticsRepositoryImpl implements AppointmentAnalyticsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<RevenueAnalyticsRowDto> aggregateStats(LocalDate startDate, LocalDate endDate, String groupBy, String bucket) {
+        String bucketExpr = switch (bucket) {
+            case "day" -> "st.stat_date";
+            case "week" -> "CAST(date_trunc('week', st.stat_date) AS date)"; // semanas ISO, empiezan en lunes
+            case "month" -> "CAST(date_trunc('month', st.stat_date) AS date)";
+            default -> null;
+        };
+        String groupIdExpr = switch (groupBy) {
+            case "barber" -> "st.barber_id";
+            case "service" -> "st.service_id";
+            default -> null;
+        };
+        String groupNameExpr = switch (groupBy) {
+            case "barber" -> "u.name";
+            case "service" -> "sv.name";
+            case "category" -> "sv.category";
+            default -> null;
+        };
+
+        List<String> groupExprs = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ");
+        appendDimension(sql, groupExprs, bucketExpr, "date");
+        appendDimension(sql, groupExprs, groupIdExpr, "bigint");
+        appendDimension(sql, groupExprs, groupNameExpr, "varchar");
+        sql.append("SUM(st.appointment_count), ")
+           .append("SUM(CASE WHEN st.status = 'COMPLETED' THEN st.appointment_count ELSE 0 END), ")
+           .append("SUM(CASE WHEN st.status = 'CANCELLED' THEN st.appointment_count ELSE 0 END), ")
+           .append("SUM(CASE WHEN st.status = 'COMPLETED' THEN st.revenue ELSE 0 END), ")
+           .append("SUM(CASE WHEN st.status <> 'CANCELLED' THEN st.appointment_count * sv.duration ELSE 0 END) ")
+           .append("FROM appointment_daily_stats st ")
+           .append("JOIN services sv ON sv.id = st.service_id ")
+           .append("JOIN users u ON u.id = st.barber_id ")
+           .append("WHERE st.stat_date BETWEEN :startDate AND :endDate");
+        if (!groupExprs.isEmpty()) {
+            String keys = String.join(", ", groupExprs);
+            sql.append(" GROUP BY ").append(keys).append(" ORDER BY ").append(keys);
+        }
+
+        List<Object[]> result = entityManager.createNativeQuery(sql.toString())
+            .setParameter("startDate", startDate)
+            .setParameter("endDate", endDate)
+            .getResultList();
+
+        List<RevenueAnalyticsRowDto> rows = new ArrayList<>(result.size());
+        for (Object[] values : result) {
+            RevenueAnalyticsRowDto row = new RevenueAnalyticsRowDto(
+                toLocalDate(values[0]),
+                values[1] != null ? ((Number) values[1]).longValue() : null,
+                values[2] != null ? values[2].toString() : null);
+            row.setAppointmentCount(toLong(values[3]));
+            row.setCompletedCount(toLong(values[4]));
+            row.setCancelledCount(toLong(values[5]));
+            row.setRevenue(values[6] != null ? new BigDecimal(values[6].toString()) : BigDecimal.ZERO);
+            row.setBookedMinutes(toLong(values[7]));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Las dimensiones no pedidas se devuelven como NULL para mantener fijas las columnas
+    private static void appendDimension(StringBuilder sql, List<String> groupExprs, String expr, String type) {
+        if (expr == null) {
+            sql.append("CAST(NULL AS ").append(type).append("), ");
+        } else {
+            sql.append(expr).append(", ");
+            groupExprs.add(expr);
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
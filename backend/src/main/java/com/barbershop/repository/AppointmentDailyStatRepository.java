@@ -0,0 +1,98 @@
+package com.barbershop.repository;
+
+import com.barbershop.entity.AppointmentDailyStat;
+import com.barbershop.entity.AppointmentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface AppointmentDailyStatRepository extends JpaRepository<AppointmentDailyStat, Long>, AppointmentAnalyticsRepository {
+
+    /**
+     * Suma los deltas al grupo (día, barbero, servicio, estado), creándolo si no existe.
+     * Es atómico en PostgreSQL, así que dos citas concurrentes no pierden incrementos.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_daily_stats " +
+                   "(stat_date, barber_id, service_id, status, appointment_count, revenue) " +
+                   "VALUES (:statDate, :barberId, :serviceId, :status, :countDelta, :revenueDelta) " +
+                   "ON CONFLICT (stat_date, barber_id, service_id, status) DO UPDATE SET " +
+                   "appointment_count = appointment_daily_stats.appointment_count + EXCLUDED.appointment_count, " +
+                   "revenue = appointment_daily_stats.revenue + EXCLUDED.revenue",
+           nativeQuery = true)
+    void applyDelta(@Param("statDate") LocalDate statDate,
+                    @Param("barberId") Long barberId,
+                    @Param("serviceId") Long serviceId,
+                    @Param("status") String status,
+                    @Param("countDelta") long countDelta,
+                    @Param("revenueDelta") BigDecimal revenueDelta);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM appointment_daily_stats", nativeQuery = true)
+    void deleteAllStats();
+
+    // Recalcula todos los agregados a partir de la tabla de citas en una sola pasada
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO appointment_daily_stats " +
+                   "(stat_date, barber_id, service_id, status, appointment_count, revenue) " +
+                   "SELECT date, barber_id, service_id, status, COUNT(*), COALESCE(SUM(total_price), 0) " +
+                   "FROM appointments GROUP BY date, barber_id, service_id, status",
+           nativeQuery = true)
+    void insertFromAppointments();
+
+    /**
+     * Bloquea la tabla frente a los upserts concurrentes hasta el final de la transacción
+     * (las lecturas siguen permitidas). Lo usa la reconstrucción completa.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE appointment_daily_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Resta de los agregados las citas de un usuario (como cliente o barbero), antes de borrarlas en cascada
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE appointment_daily_stats s SET " +
+                   "appointment_count = s.appointment_count - d.cnt, revenue = s.revenue - d.rev " +
+                   "FROM (SELECT date, barber_id, service_id, status, COUNT(*) AS cnt, " +
+                   "COALESCE(SUM(total_price), 0) AS rev FROM appointments " +
+                   "WHERE client_id = :userId OR barber_id = :userId " +
+                   "GROUP BY date, barber_id, service_id, status) d " +
+                   "WHERE s.stat_date = d.date AND s.barber_id = d.barber_id " +
+                   "AND s.service_id = d.service_id AND s.status = d.status",
+           nativeQuery = true)
+    int subtractAppointmentsOfUser(@Param("userId") Long userId);
+
+    // Resta de los agregados las citas de un servicio, antes de borrarlas en cascada
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE appointment_daily_stats s SET " +
+                   "appointment_count = s.appointment_count - d.cnt, revenue = s.revenue - d.rev " +
+                   "FROM (SELECT date, barber_id, service_id, status, COUNT(*) AS cnt, " +
+                   "COALESCE(SUM(total_price), 0) AS rev FROM appointments " +
+                   "WHERE service_id = :serviceId " +
+                   "GROUP BY date, barber_id, service_id, status) d " +
+                   "WHERE s.stat_date = d.date AND s.barber_id = d.barber_id " +
+                   "AND s.service_id = d.service_id AND s.status = d.status",
+           nativeQuery = true)
+    int subtractAppointmentsOfService(@Param("serviceId") Long serviceId);
+
+    @Modifying
+    @Query(value = "DELETE FROM appointment_daily_stats WHERE appointment_count = 0 AND revenue = 0", nativeQuery = true)
+    int deleteEmptyStats();
+
+    @Query("SELECT COALESCE(SUM(s.appointmentCount), 0) FROM AppointmentDailyStat s")
+    long sumAppointmentCount();
+
+    @Query("SELECT COALESCE(SUM(s.appointmentCount), 0) FROM AppointmentDailyStat s WHERE s.statDate = :date")
+    long sumAppointmentCountByDate(@Param("date") LocalDate date);
+
+    @Query("SELECT COALESCE(SUM(s.revenue), 0) FROM AppointmentDailyStat s " +
+           "WHERE s.statDate BETWEEN :startDate AND :endDate AND s.status = :status")
+    BigDecimal sumRevenueByDateRangeAndStatus(@Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate,
+                                              @Param("status") AppointmentStatus status);
+}
@@ -1,5 +1,7 @@
 package com.barbershop.repository;
 
+import com.barbershop.dto.AppointmentDto;
+import com.barbershop.dto.BookedSlotDto;
 import com.barbershop.entity.Appointment;
 import com.barbershop.entity.AppointmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,7 +15,13 @@ import java.time.LocalTime;
 import java.util.List;
 
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentSearchRepository {
+
+    // Proyección plana de una cita con cliente, barbero y servicio en una sola consulta
+    String APPOINTMENT_DTO_SELECT = "SELECT new com.barbershop.dto.AppointmentDto(" +
+           "a.id, c.id, c.name, c.email, c.phone, b.id, b.name, s.id, s.name, s.price, s.duration, " +
+           "a.date, a.time, a.status, a.notes, a.totalPrice, a.createdAt) " +
+           "FROM Appointment a JOIN a.client c JOIN a.barber b JOIN a.service s ";
 
     List<Appointment> findByClientIdOrderByDateDescTimeDesc(Long clientId);
 
@@ -55,4 +63,49 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
 
     @Query("SELECT a FROM Appointment a WHERE a.barber.id = :barberId AND a.date >= :today AND a.status IN ('PENDING', 'CONFIRMED') ORDER BY a.date ASC, a.time ASC")
     List<Appointment> findUpcomingAppointmentsByBarber(@Param("barberId") Long barberId, @Param("today") LocalDate today);
+
+    @Query("SELECT new com.barbershop.dto.BookedSlotDto(a.barber.id, a.date, a.time, s.duration) " +
+           "FROM Appointment a JOIN a.service s " +
+           "WHERE a.barber.id = (SELECT bp.user.id FROM BarberProfile bp WHERE bp.id = :barberProfileId) " +
+           "AND a.date BETWEEN :startDate AND :endDate AND a.status IN :statuses")
+    List<BookedSlotDto> findBookedSlotsByBarberProfileAndDateRange(@Param("barberProfileId") Long barberProfileId,
+                                                                   @Param("startDate") LocalDate startDate,
+                                                                   @Param("endDate") LocalDate endDate,
+                                                                   @Param("statuses") List<AppointmentStatus> statuses);
+
+    @Query("SELECT new com.barbershop.dto.BookedSlotDto(a.barber.id, a.date, a.time, s.duration) " +
+           "FROM Appointment a JOIN a.service s " +
+           "WHERE a.barber.id IN :barberIds AND a.date BETWEEN :startDate AND :endDate AND a.status IN :statuses")
+    List<BookedSlotDto> findBookedSlotsByBarbersAndDateRange(@Param("barberIds") List<Long> barberIds,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate,
+                                                             @Param("statuses") List<AppointmentStatus> statuses);
+
+    @Query(APPOINTMENT_DTO_SELECT + "ORDER BY a.id ASC")
+    List<AppointmentDto> findAllAsDto();
+
+    @Query(APPOINTMENT_DTO_SELECT + "WHERE b.id = :barberId ORDER BY a.date ASC, a.time ASC")
+    List<AppointmentDto> findDtosByBarberId(@Param("barberId") Long barberId);
+
+    @Query(APPOINTMENT_DTO_SELECT + "WHERE a.date = :date ORDER BY a.time ASC")
+    List<AppointmentDto> findDtosByDate(@Param("date") LocalDate date);
+
+    @Query(APPOINTMENT_DTO_SELECT + "WHERE a.date >= :today AND a.status IN ('PENDING', 'CONFIRMED') ORDER BY a.date ASC, a.time ASC")
+    List<AppointmentDto> findUpcomingDtos(@Param("today") LocalDate today);
+
+    @Query(APPOINTMENT_DTO_SELECT + "WHERE b.id = :barberId AND a.date = :date ORDER BY a.time ASC")
+    List<AppointmentDto> findDtosByBarberIdAndDate(@Param("barberId") Long barberId, @Param("date") LocalDate date);
+
+    @Query(APPOINTMENT_DTO_SELECT + "WHERE b.id = :barberId AND a.date BETWEEN :startDate AND :endDate " +
+           "ORDER BY a.date ASC, a.time ASC")
+    List<AppointmentDto> findDtosByBarberIdAndDateRange(@Param("barberId") Long barberId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    /**
+     * Bloqueo consultivo de PostgreSQL por barbero, liberado al terminar la transacción.
+     * Serializa las reservas de un mismo barbero sin bloquear filas.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:lockKey)) AS barber_lock", nativeQuery = true)
+    Integer lockBarberForBooking(@Param("lockKey") long lockKey);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.barbershop.repository;
+
+import com.barbershop.dto.AppointmentDto;
+import com.barbershop.dto.AppointmentSearchCriteria;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface AppointmentSearchRepository {
+
+    /**
+     * Búsqueda de citas paginada por keyset sobre (date, time, id).
+     * Devuelve como máximo {@code limit} filas posteriores a la posición de los criterios.
+     */
+    List<AppointmentDto> searchAppointments(AppointmentSearchCriteria criteria, int limit);
+
+    /**
+     * Recorre todas las citas de los criterios con un cursor de solo avance y un
+     * fetch size acotado. Debe consumirse y cerrarse dentro de una transacción.
+     */
+    Stream<AppointmentDto> streamAppointments(AppointmentSearchCriteria criteria);
+}
@@ -0,0 +1,85 @@
+package com.barbershop.repository;
+
+import com.barbershop.dto.AppointmentDto;
+import com.barbershop.dto.AppointmentSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class AppointmentSearchRepositoryImpl implements AppointmentSearchRepository {
+
+    // Filas que el driver JDBC trae por viaje al recorrer un export
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AppointmentDto> searchAppointments(AppointmentSearchCriteria criteria, int limit) {
+        TypedQuery<AppointmentDto> query = buildSearchQuery(criteria);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<AppointmentDto> streamAppointments(AppointmentSearchCriteria criteria) {
+        TypedQuery<AppointmentDto> query = buildSearchQuery(criteria);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    private TypedQuery<AppointmentDto> buildSearchQuery(AppointmentSearchCriteria criteria) {
+        StringBuilder jpql = new StringBuilder(AppointmentRepository.APPOINTMENT_DTO_SELECT).append("WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        // Solo se añaden los filtros presentes para que el plan use el índice adecuado
+        if (criteria.getStatus() != null) {
+            jpql.append(" AND a.status = :status");
+            params.put("status", criteria.getStatus());
+        }
+        if (criteria.getBarberId() != null) {
+            jpql.append(" AND b.id = :barberId");
+            params.put("barberId", criteria.getBarberId());
+        }
+        if (criteria.getClientId() != null) {
+            jpql.append(" AND c.id = :clientId");
+            params.put("clientId", criteria.getClientId());
+        }
+        if (criteria.getServiceId() != null) {
+            jpql.append(" AND s.id = :serviceId");
+            params.put("serviceId", criteria.getServiceId());
+        }
+        if (criteria.getStartDate() != null) {
+            jpql.append(" AND a.date >= :startDate");
+            params.put("startDate", criteria.getStartDate());
+        }
+        if (criteria.getEndDate() != null) {
+            jpql.append(" AND a.date <= :endDate");
+            params.put("endDate", criteria.getEndDate());
+        }
+
+        String direction = criteria.isDescending() ? "DESC" : "ASC";
+        if (criteria.getAfterId() != null) {
+            jpql.append(" AND (a.date, a.time, a.id) ").append(criteria.isDescending() ? "<" : ">")
+                .append(" (:afterDate, :afterTime, :afterId)");
+            params.put("afterDate", criteria.getAfterDate());
+            params.put("afterTime", criteria.getAfterTime());
+            params.put("afterId", criteria.getAfterId());
+        }
+
+        jpql.append(" ORDER BY a.date ").append(direction)
+            .append(", a.time ").append(direction)
+            .append(", a.id ").append(direction);
+
+        TypedQuery<AppointmentDto> query = entityManager.createQuery(jpql.toString(), AppointmentDto.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
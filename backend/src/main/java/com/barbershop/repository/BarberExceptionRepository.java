@@ -26,4 +26,13 @@ public interface BarberExceptionRepository extends JpaRepository<BarberException
     );
 
     void deleteByBarberProfileId(Long barberProfileId);
+
+    @Query("SELECT e FROM BarberException e WHERE e.barberProfile.id IN :barberProfileIds " +
+           "AND e.exceptionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY e.exceptionDate ASC, e.id ASC")
+    List<BarberException> findByBarberProfileIdsAndDateRange(
+        @Param("barberProfileIds") List<Long> barberProfileIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
 }
@@ -1,5 +1,6 @@
 package com.barbershop.repository;
 
+import com.barbershop.dto.BarberAvailabilityDto;
 import com.barbershop.entity.BarberProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -17,15 +18,25 @@ public interface BarberProfileRepository extends JpaRepository<BarberProfile, Lo
 
     List<BarberProfile> findByIsActiveTrueOrderByRatingDesc();
 
+    // Perfiles activos con usuario y especialidades en una sola consulta (sin N+1)
+    @Query("SELECT DISTINCT bp FROM BarberProfile bp JOIN FETCH bp.user LEFT JOIN FETCH bp.specialties " +
+           "WHERE bp.isActive = true ORDER BY bp.rating DESC")
+    List<BarberProfile> findActiveWithUserAndSpecialties();
+
     @Query("SELECT bp FROM BarberProfile bp WHERE bp.isActive = true AND bp.rating >= :minRating")
     List<BarberProfile> findByMinRating(@Param("minRating") BigDecimal minRating);
 
-    @Query("SELECT bp FROM BarberProfile bp WHERE bp.isActive = true AND :specialty MEMBER OF bp.specialties")
-    List<BarberProfile> findBySpecialty(@Param("specialty") String specialty);
-
     @Query("SELECT bp FROM BarberProfile bp WHERE bp.isActive = true AND bp.experience >= :minExperience")
     List<BarberProfile> findByMinExperience(@Param("minExperience") Integer minExperience);
 
     @Query("SELECT COUNT(bp) FROM BarberProfile bp WHERE bp.isActive = true")
     long countActiveBarbers();
+
+    @Query("SELECT new com.barbershop.dto.BarberAvailabilityDto(bp.id, u.id, u.name) " +
+           "FROM BarberProfile bp JOIN bp.user u WHERE bp.isActive = true ORDER BY bp.rating DESC")
+    List<BarberAvailabilityDto> findActiveBarbersForAvailability();
+
+    @Query("SELECT new com.barbershop.dto.BarberAvailabilityDto(bp.id, u.id, u.name) " +
+           "FROM BarberProfile bp JOIN bp.user u WHERE bp.isActive = true AND bp.id IN :ids ORDER BY bp.rating DESC")
+    List<BarberAvailabilityDto> findActiveBarbersForAvailabilityByIds(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
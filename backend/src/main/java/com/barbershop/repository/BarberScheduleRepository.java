@@ -16,6 +16,8 @@ public interface BarberScheduleRepository extends JpaRepository<BarberSchedule,
 
     List<BarberSchedule> findByBarberProfileIdAndDayOfWeek(Long barberProfileId, Integer dayOfWeek);
 
+    List<BarberSchedule> findByBarberProfileIdAndDayOfWeekOrderByStartTimeAsc(Long barberProfileId, Integer dayOfWeek);
+
     void deleteByBarberProfileId(Long barberProfileId);
 
     @Query("SELECT bs FROM BarberSchedule bs WHERE bs.barberProfile.id = :barberProfileId AND bs.dayOfWeek = :dayOfWeek AND bs.isAvailable = true")
@@ -26,4 +28,8 @@ public interface BarberScheduleRepository extends JpaRepository<BarberSchedule,
     List<BarberSchedule> findByBarberAndDayAndTimeRange(@Param("barberProfileId") Long barberProfileId,
                                                        @Param("dayOfWeek") Integer dayOfWeek,
                                                        @Param("time") LocalTime time);
+
+    @Query("SELECT bs FROM BarberSchedule bs WHERE bs.barberProfile.id IN :barberProfileIds " +
+           "ORDER BY bs.dayOfWeek ASC, bs.startTime ASC")
+    List<BarberSchedule> findByBarberProfileIds(@Param("barberProfileIds") List<Long> barberProfileIds);
 }
\ No newline at end of file
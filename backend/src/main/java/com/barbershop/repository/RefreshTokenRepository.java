@@ -3,15 +3,88 @@ package com.barbershop.repository;
 import com.barbershop.entity.RefreshToken;
 import com.barbershop.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    Optional<RefreshToken> findByUserAndIsRevokedFalse(User user);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
     void deleteByExpiryDateBefore(LocalDateTime date);
     void deleteByUser(User user);
+
+    /**
+     * Revoca las sesiones activas del usuario y guarda el nuevo token en una sola
+     * sentencia (login).
+     */
+    @Modifying
+    @Query(value = "WITH revoked AS (" +
+                   "UPDATE refresh_tokens SET is_revoked = true, revoked_at = :now, revoke_reason = 'login' " +
+                   "WHERE user_id = :userId AND is_revoked = false) " +
+                   "INSERT INTO refresh_tokens (token_hash, user_id, expiry_date, created_at, is_revoked) " +
+                   "VALUES (:tokenHash, :userId, :expiryDate, :now, false)",
+           nativeQuery = true)
+    int replaceActiveTokens(@Param("userId") Long userId,
+                            @Param("tokenHash") byte[] tokenHash,
+                            @Param("expiryDate") LocalDateTime expiryDate,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Rota un refresh token: lo revoca si sigue activo e inserta su sucesor para el
+     * mismo usuario, enlazado por parent_hash. Devuelve 0 si el token no existe, está
+     * revocado o ha expirado. Dos rotaciones concurrentes del mismo token se serializan
+     * en el bloqueo de la fila y solo una de ellas inserta el sucesor; la restricción
+     * única sobre parent_hash garantiza además un único sucesor por token.
+     */
+    @Modifying
+    @Query(value = "WITH rotated AS (" +
+                   "UPDATE refresh_tokens SET is_revoked = true, revoked_at = :now, revoke_reason = 'rotated' " +
+                   "WHERE token_hash = :oldHash AND is_revoked = false AND expiry_date > :now " +
+                   "RETURNING user_id) " +
+                   "INSERT INTO refresh_tokens (token_hash, parent_hash, user_id, expiry_date, created_at, is_revoked) " +
+                   "SELECT :newHash, :oldHash, user_id, :expiryDate, :now, false FROM rotated",
+           nativeQuery = true)
+    int rotate(@Param("oldHash") byte[] oldHash,
+               @Param("newHash") byte[] newHash,
+               @Param("expiryDate") LocalDateTime expiryDate,
+               @Param("now") LocalDateTime now);
+
+    // Revoca las sesiones activas del usuario dentro de la transacción en curso (logout)
+    @Modifying
+    @Query(value = "UPDATE refresh_tokens SET is_revoked = true, revoked_at = :now, revoke_reason = :reason " +
+                   "WHERE user_id = :userId AND is_revoked = false",
+           nativeQuery = true)
+    int revokeAllByUserId(@Param("userId") Long userId,
+                          @Param("reason") String reason,
+                          @Param("now") LocalDateTime now);
+
+    // En su propia transacción: la revocación por reutilización debe persistir aunque la petición falle
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE refresh_tokens SET is_revoked = true, revoked_at = :now, revoke_reason = :reason " +
+                   "WHERE user_id = :userId AND is_revoked = false",
+           nativeQuery = true)
+    int revokeAllByUserIdInNewTransaction(@Param("userId") Long userId,
+                                          @Param("reason") String reason,
+                                          @Param("now") LocalDateTime now);
+
+    // Siguiente lote de tokens expirados a partir del último ID purgado (keyset)
+    @Query(value = "SELECT id FROM refresh_tokens WHERE expiry_date < :now AND id > :afterId " +
+                   "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now,
+                              @Param("afterId") long afterId,
+                              @Param("limit") int limit);
+
+    // Cada lote se borra en su propia transacción para no mantener bloqueos largos
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("DELETE FROM RefreshToken t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
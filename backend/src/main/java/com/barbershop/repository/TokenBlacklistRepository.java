@@ -2,14 +2,34 @@ package com.barbershop.repository;
 
 import com.barbershop.entity.TokenBlacklist;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TokenBlacklistRepository extends JpaRepository<TokenBlacklist, Long> {
-    Optional<TokenBlacklist> findByToken(String token);
-    boolean existsByToken(String token);
+    Optional<TokenBlacklist> findByTokenHash(byte[] tokenHash);
+    boolean existsByTokenHash(byte[] tokenHash);
     void deleteByExpiryDateBefore(LocalDateTime date);
+    List<TokenBlacklist> findByExpiryDateAfter(LocalDateTime date);
+
+    // Siguiente lote de tokens expirados a partir del último ID purgado (keyset)
+    @Query(value = "SELECT id FROM token_blacklist WHERE expiry_date < :now AND id > :afterId " +
+                   "ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now,
+                              @Param("afterId") long afterId,
+                              @Param("limit") int limit);
+
+    // Cada lote se borra en su propia transacción para no mantener bloqueos largos
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("DELETE FROM TokenBlacklist t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
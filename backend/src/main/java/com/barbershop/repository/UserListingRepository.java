@@ -0,0 +1,23 @@
+package com.barbershop.repository;
+
+import com.barbershop.dto.UserDto;
+import com.barbershop.dto.UserSearchCriteria;
+
+import java.util.List;
+
+public interface UserListingRepository {
+
+    /**
+     * Página de usuarios como proyección plana (sin avatar ni colecciones),
+     * filtrada y ordenada según los criterios.
+     */
+    List<UserDto> findUserPage(UserSearchCriteria criteria, int offset, int limit);
+
+    long countUsers(UserSearchCriteria criteria);
+
+    /**
+     * Número aproximado de filas de la tabla users según las estadísticas de
+     * PostgreSQL, o -1 si la tabla aún no se ha analizado.
+     */
+    long estimateUserCount();
+}
@@ -0,0 +1,87 @@
+package com.barbershop.repository;
+
+import com.barbershop.dto.UserDto;
+import com.barbershop.dto.UserSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UserListingRepositoryImpl implements UserListingRepository {
+
+    // Columnas por las que se permite ordenar (evita inyectar JPQL desde el parámetro)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+        "id", "u.id",
+        "name", "u.name",
+        "email", "u.email",
+        "createdAt", "u.createdAt"
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserDto> findUserPage(UserSearchCriteria criteria, int offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(
+            "SELECT new com.barbershop.dto.UserDto(u.id, u.name, u.email, u.phone, r.name, u.isActive, u.createdAt) " +
+            "FROM User u JOIN u.role r");
+        appendFilters(jpql, params, criteria);
+
+        String column = SORT_COLUMNS.getOrDefault(criteria.getSortBy(), "u.createdAt");
+        String direction = criteria.isDescending() ? "DESC" : "ASC";
+        jpql.append(" ORDER BY ").append(column).append(" ").append(direction);
+        if (!column.equals("u.id")) {
+            jpql.append(", u.id ").append(direction); // Orden estable entre páginas
+        }
+
+        TypedQuery<UserDto> query = entityManager.createQuery(jpql.toString(), UserDto.class);
+        params.forEach(query::setParameter);
+        query.setFirstResult(offset);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countUsers(UserSearchCriteria criteria) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(u) FROM User u JOIN u.role r");
+        appendFilters(jpql, params, criteria);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public long estimateUserCount() {
+        Query query = entityManager.createNativeQuery(
+            "SELECT CAST(reltuples AS bigint) FROM pg_class WHERE oid = CAST('users' AS regclass)");
+        Object result = query.getSingleResult();
+        return result != null ? ((Number) result).longValue() : -1;
+    }
+
+    private static void appendFilters(StringBuilder jpql, Map<String, Object> params, UserSearchCriteria criteria) {
+        jpql.append(" WHERE 1 = 1");
+        if (criteria.getRole() != null) {
+            jpql.append(" AND r.name = :role");
+            params.put("role", criteria.getRole());
+        }
+        if (criteria.getIsActive() != null) {
+            jpql.append(" AND u.isActive = :isActive");
+            params.put("isActive", criteria.getIsActive());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            jpql.append(" AND u.createdAt >= :createdFrom");
+            params.put("createdFrom", criteria.getCreatedFrom().atStartOfDay());
+        }
+        if (criteria.getCreatedTo() != null) {
+            jpql.append(" AND u.createdAt < :createdTo");
+            params.put("createdTo", criteria.getCreatedTo().plusDays(1).atStartOfDay());
+        }
+    }
+}
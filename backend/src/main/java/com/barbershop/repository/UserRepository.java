@@ -1,5 +1,6 @@
 package com.barbershop.repository;
 
+import com.barbershop.dto.UserDto;
 import com.barbershop.entity.Role;
 import com.barbershop.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserListingRepository {
 
     Optional<User> findByEmail(String email);
 
@@ -35,4 +36,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.role.name = :roleName")
     long countByRoleName(@Param("roleName") String roleName);
+
+    // Datos mínimos de todos los usuarios para construir el índice de búsqueda
+    @Query("SELECT new com.barbershop.dto.UserDto(u.id, u.name, u.email, u.phone, r.name, u.isActive) " +
+           "FROM User u JOIN u.role r")
+    List<UserDto> findAllForSearchIndex();
 }
\ No newline at end of file
@@ -1,20 +1,36 @@
 package com.barbershop.service;
 
 import com.barbershop.dto.AppointmentDto;
+import com.barbershop.dto.AppointmentPageDto;
+import com.barbershop.dto.AppointmentSearchCriteria;
+import com.barbershop.dto.BookedSlotDto;
 import com.barbershop.dto.CreateAppointmentRequestDto;
 import com.barbershop.entity.*;
+import com.barbershop.exception.SlotConflictException;
 import com.barbershop.repository.AppointmentRepository;
 import com.barbershop.repository.ServiceRepository;
 import com.barbershop.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -29,10 +45,36 @@ public class AppointmentService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Mismo margen que ofrece ScheduleService al listar slots
+    @Value("${schedule.slots.buffer-minutes:0}")
+    private int slotBufferMinutes;
+
+    // Estados de cita que ocupan el hueco del barbero
+    private static final List<AppointmentStatus> BLOCKING_STATUSES =
+        List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+
+    // Espacio de claves de pg_advisory_xact_lock reservado para reservas de citas
+    private static final long BOOKING_LOCK_NAMESPACE = 0x4241524245520000L;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Tamaño máximo del rango de getAppointmentsByBarberAndDateRange, igual que la matriz de disponibilidad
+    private static final int MAX_RANGE_DAYS = 31;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final String CSV_HEADER = "id,date,time,status,clientId,clientName,clientEmail,clientPhone," +
+        "barberId,barberName,serviceId,serviceName,servicePrice,serviceDuration,totalPrice,notes,createdAt";
+
     public List<AppointmentDto> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-            .map(this::convertToAppointmentDto)
-            .collect(Collectors.toList());
+        return appointmentRepository.findAllAsDto();
     }
 
     public List<AppointmentDto> getAppointmentsByClient(Long clientId) {
@@ -48,21 +90,79 @@ public class AppointmentService {
     }
 
     public List<AppointmentDto> getAppointmentsByBarber(Long barberId) {
-        return appointmentRepository.findByBarberIdOrderByDateAscTimeAsc(barberId).stream()
-            .map(this::convertToAppointmentDto)
-            .collect(Collectors.toList());
+        return appointmentRepository.findDtosByBarberId(barberId);
+    }
+
+    public List<AppointmentDto> getAppointmentsByBarberAndDate(Long barberId, LocalDate date) {
+        return appointmentRepository.findDtosByBarberIdAndDate(barberId, date);
+    }
+
+    /**
+     * Citas del barbero en un rango de como mucho {@link #MAX_RANGE_DAYS} días, para que
+     * el coste de la consulta no crezca con el historial.
+     */
+    public List<AppointmentDto> getAppointmentsByBarberAndDateRange(Long barberId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return appointmentRepository.findDtosByBarberIdAndDateRange(barberId, startDate, endDate);
     }
 
     public List<AppointmentDto> getAppointmentsByDate(LocalDate date) {
-        return appointmentRepository.findByDateOrderByTimeAsc(date).stream()
-            .map(this::convertToAppointmentDto)
-            .collect(Collectors.toList());
+        return appointmentRepository.findDtosByDate(date);
     }
 
     public List<AppointmentDto> getUpcomingAppointments() {
-        return appointmentRepository.findUpcomingAppointments(LocalDate.now()).stream()
-            .map(this::convertToAppointmentDto)
-            .collect(Collectors.toList());
+        return appointmentRepository.findUpcomingDtos(LocalDate.now());
+    }
+
+    /**
+     * Búsqueda de citas paginada por cursor sobre (date, time, id). El coste de cada
+     * página es constante: no hay OFFSET ni COUNT sobre la tabla completa.
+     */
+    public AppointmentPageDto searchAppointments(AppointmentSearchCriteria criteria, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (cursor != null && !cursor.isBlank()) {
+            decodeCursor(cursor, criteria);
+        }
+
+        // Se pide una fila de más para saber si hay otra página
+        List<AppointmentDto> rows = appointmentRepository.searchAppointments(criteria, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<AppointmentDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1)) : null;
+
+        return new AppointmentPageDto(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Exporta las citas de los criterios en CSV o NDJSON escribiendo directamente en
+     * {@code out}. Las filas se leen con un cursor de solo avance y se escriben según
+     * llegan, así que la memoria usada no depende del número de citas.
+     */
+    @Transactional(readOnly = true)
+    public void exportAppointments(AppointmentSearchCriteria criteria, String format, OutputStream out) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<AppointmentDto> rows = appointmentRepository.streamAppointments(criteria)) {
+            for (AppointmentDto row : (Iterable<AppointmentDto>) rows::iterator) {
+                if (csv) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
     }
 
     public AppointmentDto createAppointment(CreateAppointmentRequestDto request, Long clientId) {
@@ -86,13 +186,7 @@ public class AppointmentService {
             throw new RuntimeException("Service is not active");
         }
 
-        // Verificar disponibilidad (que no haya otra cita en la misma fecha/hora/barbero)
-        List<Appointment> conflictingAppointments = appointmentRepository.findByDateAndTimeAndBarberId(
-            request.getDate(), request.getTime(), request.getBarberId());
-
-        if (!conflictingAppointments.isEmpty()) {
-            throw new RuntimeException("Time slot is not available");
-        }
+        lockAndCheckSlot(barber.getId(), request.getDate(), request.getTime(), service.getDuration());
 
         // Crear la cita
         Appointment appointment = new Appointment();
@@ -106,6 +200,7 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.PENDING);
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        appointmentStatsService.recordCreated(savedAppointment);
         return convertToAppointmentDto(savedAppointment);
     }
 
@@ -113,6 +208,16 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
             .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
+        AppointmentStatus previousStatus = appointment.getStatus();
+
+        // Reactivar una cita (p. ej. CANCELLED -> PENDING) vuelve a ocupar su hueco, que
+        // puede haberse reservado entretanto. Se comprueba antes de cambiar el estado para
+        // que el flush previo a la consulta no haga que la cita choque consigo misma
+        if (BLOCKING_STATUSES.contains(status) && !BLOCKING_STATUSES.contains(previousStatus)) {
+            lockAndCheckSlot(appointment.getBarber().getId(), appointment.getDate(), appointment.getTime(),
+                appointment.getService().getDuration());
+        }
+
         appointment.setStatus(status);
 
         if (status == AppointmentStatus.COMPLETED) {
@@ -122,6 +227,7 @@ public class AppointmentService {
         }
 
         Appointment updatedAppointment = appointmentRepository.save(appointment);
+        appointmentStatsService.recordStatusChange(updatedAppointment, previousStatus);
         return convertToAppointmentDto(updatedAppointment);
     }
 
@@ -129,30 +235,119 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
             .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
+        AppointmentStatus previousStatus = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setCancelledAt(LocalDateTime.now());
         appointment.setCancellationReason(reason);
 
         appointmentRepository.save(appointment);
+        appointmentStatsService.recordStatusChange(appointment, previousStatus);
     }
 
+    // Las métricas se leen de appointment_daily_stats, no de la tabla de citas
     public long getTotalAppointmentCount() {
-        return appointmentRepository.count();
+        return appointmentStatsService.getTotalAppointmentCount();
     }
 
     public long getAppointmentCountByDate(LocalDate date) {
-        return appointmentRepository.countByDate(date);
+        return appointmentStatsService.getAppointmentCountByDate(date);
     }
 
     public BigDecimal getRevenueBetweenDates(LocalDate startDate, LocalDate endDate) {
-        BigDecimal revenue = appointmentRepository.sumRevenueByDateRange(startDate, endDate);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        return appointmentStatsService.getRevenueBetweenDates(startDate, endDate);
     }
 
     public void deleteAllAppointments() {
+        // Primero se bloquean los agregados, así las citas que se confirmen a la vez
+        // o ya están en la tabla y se borran, o aplican su delta después
+        appointmentStatsService.clear();
         appointmentRepository.deleteAll();
     }
 
+    /**
+     * Verifica que el barbero tiene libre el intervalo bajo un bloqueo por barbero: dos
+     * reservas concurrentes del mismo barbero se serializan y la segunda ve la cita de
+     * la primera. Se consideran también las citas del día anterior que terminan pasada
+     * la medianoche y las del día siguiente que pisa una cita que cruza la medianoche.
+     * Entre la cita y las existentes debe quedar el margen schedule.slots.buffer-minutes.
+     */
+    private void lockAndCheckSlot(Long barberId, LocalDate date, LocalTime time, int duration) {
+        appointmentRepository.lockBarberForBooking(BOOKING_LOCK_NAMESPACE + barberId);
+
+        int start = time.toSecondOfDay() / 60;
+        int end = start + duration;
+        List<BookedSlotDto> bookedSlots = appointmentRepository.findBookedSlotsByBarbersAndDateRange(
+            List.of(barberId), date.minusDays(1), date.plusDays(1), BLOCKING_STATUSES);
+
+        for (BookedSlotDto booked : bookedSlots) {
+            // Minutos relativos a la medianoche de la fecha pedida
+            int dayOffset = (int) ChronoUnit.DAYS.between(date, booked.getDate()) * MINUTES_PER_DAY;
+            int bookedStart = dayOffset + booked.getTime().toSecondOfDay() / 60;
+            int bookedEnd = bookedStart + booked.getDuration();
+            if (start < bookedEnd + slotBufferMinutes && bookedStart - slotBufferMinutes < end) {
+                throw new SlotConflictException("Time slot is not available");
+            }
+        }
+    }
+
+    private void writeCsvRow(Writer writer, AppointmentDto row) throws IOException {
+        Object[] values = {
+            row.getId(), row.getDate(), row.getTime(), row.getStatus() != null ? row.getStatus().name() : null,
+            row.getClientId(), row.getClientName(), row.getClientEmail(), row.getClientPhone(),
+            row.getBarberId(), row.getBarberName(), row.getServiceId(), row.getServiceName(),
+            row.getServicePrice(), row.getServiceDuration(), row.getTotalPrice(), row.getNotes(), row.getCreatedAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    // Entrecomilla los campos con separadores, comillas o saltos de línea (RFC 4180).
+    // Los textos introducidos por usuarios que empiezan como una fórmula (=, +, -, @,
+    // tabulador o retorno de carro) se prefijan con ' para que Excel no los evalúe.
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof CharSequence && isFormulaLike(text)) {
+            return "\"'" + text.replace("\"", "\"\"") + '"';
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static boolean isFormulaLike(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    private String encodeCursor(AppointmentDto last) {
+        String raw = last.getDate() + "|" + last.getTime() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, AppointmentSearchCriteria criteria) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            criteria.setAfterDate(LocalDate.parse(parts[0]));
+            criteria.setAfterTime(LocalTime.parse(parts[1]));
+            criteria.setAfterId(Long.parseLong(parts[2]));
+        } catch (Exception ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
     private AppointmentDto convertToAppointmentDto(Appointment appointment) {
         AppointmentDto dto = new AppointmentDto();
         dto.setId(appointment.getId());
@@ -0,0 +1,271 @@
+package com.barbershop.service;
+
+import com.barbershop.dto.BarberAvailabilityDto;
+import com.barbershop.dto.RevenueAnalyticsDto;
+import com.barbershop.dto.RevenueAnalyticsRowDto;
+import com.barbershop.entity.Appointment;
+import com.barbershop.entity.AppointmentStatus;
+import com.barbershop.entity.BarberException;
+import com.barbershop.entity.BarberSchedule;
+import com.barbershop.repository.AppointmentDailyStatRepository;
+import com.barbershop.repository.AppointmentRepository;
+import com.barbershop.repository.BarberExceptionRepository;
+import com.barbershop.repository.BarberProfileRepository;
+import com.barbershop.repository.BarberScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene la tabla appointment_daily_stats y resuelve las métricas del
+ * dashboard a partir de ella. Cada alta, cambio de estado o cancelación de
+ * una cita mueve una unidad entre grupos (día, barbero, servicio, estado).
+ */
+@Service
+@Transactional
+public class AppointmentStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentStatsService.class);
+
+    @Autowired
+    private AppointmentDailyStatRepository appointmentDailyStatRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private BarberProfileRepository barberProfileRepository;
+
+    @Autowired
+    private BarberScheduleRepository barberScheduleRepository;
+
+    @Autowired
+    private BarberExceptionRepository barberExceptionRepository;
+
+    private static final Set<String> GROUP_BY_OPTIONS = Set.of("none", "barber", "service", "category");
+    private static final Set<String> BUCKET_OPTIONS = Set.of("none", "day", "week", "month");
+
+    // Tamaño máximo del rango del reporte de ingresos
+    private static final int MAX_ANALYTICS_DAYS = 731;
+
+    // Si la tabla de agregados está vacía pero hay citas (primer despliegue) se rellena
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (appointmentDailyStatRepository.count() == 0 && appointmentRepository.count() > 0) {
+            rebuild();
+            logger.info("Appointment daily stats rebuilt from appointments table");
+        }
+    }
+
+    public void recordCreated(Appointment appointment) {
+        apply(appointment, appointment.getStatus(), 1);
+    }
+
+    public void recordStatusChange(Appointment appointment, AppointmentStatus previousStatus) {
+        if (previousStatus == appointment.getStatus()) {
+            return;
+        }
+        apply(appointment, previousStatus, -1);
+        apply(appointment, appointment.getStatus(), 1);
+    }
+
+    /**
+     * Descuenta las citas de un usuario (cliente o barbero). Debe llamarse antes de
+     * borrarlo, mientras sus citas siguen en la tabla; solo toca los grupos afectados.
+     */
+    public void recordUserRemoved(Long userId) {
+        appointmentDailyStatRepository.subtractAppointmentsOfUser(userId);
+        appointmentDailyStatRepository.deleteEmptyStats();
+    }
+
+    // Igual que recordUserRemoved, para las citas de un servicio
+    public void recordServiceRemoved(Long serviceId) {
+        appointmentDailyStatRepository.subtractAppointmentsOfService(serviceId);
+        appointmentDailyStatRepository.deleteEmptyStats();
+    }
+
+    /**
+     * Recalcula todos los agregados desde la tabla de citas. La tabla queda bloqueada
+     * frente a los upserts hasta el commit: las citas que se confirmen mientras tanto
+     * aplican su delta después, sobre el resultado ya recalculado.
+     */
+    public void rebuild() {
+        appointmentDailyStatRepository.lockForRebuild();
+        appointmentDailyStatRepository.deleteAllStats();
+        appointmentDailyStatRepository.insertFromAppointments();
+    }
+
+    // Corrige cualquier desviación acumulada de los agregados (también desde /admin/maintenance)
+    @Scheduled(cron = "${appointments.stats.reconcile-cron:0 30 4 * * *}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        rebuild();
+        logger.info("Appointment daily stats reconciled in {} ms", System.currentTimeMillis() - start);
+    }
+
+    public void clear() {
+        appointmentDailyStatRepository.lockForRebuild();
+        appointmentDailyStatRepository.deleteAllStats();
+    }
+
+    @Transactional(readOnly = true)
+    public long getTotalAppointmentCount() {
+        return appointmentDailyStatRepository.sumAppointmentCount();
+    }
+
+    @Transactional(readOnly = true)
+    public long getAppointmentCountByDate(LocalDate date) {
+        return appointmentDailyStatRepository.sumAppointmentCountByDate(date);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getRevenueBetweenDates(LocalDate startDate, LocalDate endDate) {
+        return appointmentDailyStatRepository.sumRevenueByDateRangeAndStatus(startDate, endDate, AppointmentStatus.COMPLETED);
+    }
+
+    /**
+     * Reporte de ingresos, citas, ticket medio, tasa de cancelación y ocupación,
+     * agrupado por barbero, servicio o categoría y por día, semana o mes.
+     * Las métricas salen de una sola consulta GROUP BY sobre los agregados diarios;
+     * la ocupación (solo para el total o por barbero) compara los minutos reservados
+     * con los minutos de horario, calculados en memoria con DayAvailability.
+     */
+    @Transactional(readOnly = true)
+    public RevenueAnalyticsDto getRevenueAnalytics(LocalDate startDate, LocalDate endDate, String groupBy, String bucket) {
+        if (!GROUP_BY_OPTIONS.contains(groupBy)) {
+            throw new RuntimeException("Invalid groupBy: " + groupBy);
+        }
+        if (!BUCKET_OPTIONS.contains(bucket)) {
+            throw new RuntimeException("Invalid bucket: " + bucket);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_ANALYTICS_DAYS) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_ANALYTICS_DAYS + " days");
+        }
+
+        RevenueAnalyticsDto report = new RevenueAnalyticsDto(startDate, endDate, groupBy, bucket);
+        report.setRows(appointmentDailyStatRepository.aggregateStats(startDate, endDate, groupBy, bucket));
+
+        RevenueAnalyticsRowDto totals = new RevenueAnalyticsRowDto();
+        for (RevenueAnalyticsRowDto row : report.getRows()) {
+            totals.setAppointmentCount(totals.getAppointmentCount() + row.getAppointmentCount());
+            totals.setCompletedCount(totals.getCompletedCount() + row.getCompletedCount());
+            totals.setCancelledCount(totals.getCancelledCount() + row.getCancelledCount());
+            totals.setRevenue(totals.getRevenue().add(row.getRevenue()));
+            totals.setBookedMinutes(totals.getBookedMinutes() + row.getBookedMinutes());
+        }
+        report.setTotals(totals);
+
+        // Capacidad por barbero (ID de usuario) e intervalo
+        boolean withUtilization = groupBy.equals("none") || groupBy.equals("barber");
+        if (withUtilization) {
+            Map<Long, Map<LocalDate, Long>> capacity = loadCapacity(startDate, endDate, bucket);
+            long totalCapacity = 0;
+            for (RevenueAnalyticsRowDto row : report.getRows()) {
+                long available = 0;
+                for (Map.Entry<Long, Map<LocalDate, Long>> barber : capacity.entrySet()) {
+                    if (row.getGroupId() == null || row.getGroupId().equals(barber.getKey())) {
+                        available += barber.getValue().getOrDefault(row.getBucketStart(), 0L);
+                    }
+                }
+                row.setAvailableMinutes(available);
+            }
+            for (Map<LocalDate, Long> byBucket : capacity.values()) {
+                for (long minutes : byBucket.values()) {
+                    totalCapacity += minutes;
+                }
+            }
+            totals.setAvailableMinutes(totalCapacity);
+        }
+
+        for (RevenueAnalyticsRowDto row : report.getRows()) {
+            fillRatios(row);
+        }
+        fillRatios(totals);
+        return report;
+    }
+
+    private void apply(Appointment appointment, AppointmentStatus status, int sign) {
+        BigDecimal price = appointment.getTotalPrice() != null ? appointment.getTotalPrice() : BigDecimal.ZERO;
+        appointmentDailyStatRepository.applyDelta(
+            appointment.getDate(),
+            appointment.getBarber().getId(),
+            appointment.getService().getId(),
+            status.name(),
+            sign,
+            sign > 0 ? price : price.negate());
+    }
+
+    private Map<Long, Map<LocalDate, Long>> loadCapacity(LocalDate startDate, LocalDate endDate, String bucket) {
+        List<BarberAvailabilityDto> barbers = barberProfileRepository.findActiveBarbersForAvailability();
+        Map<Long, Map<LocalDate, Long>> capacity = new HashMap<>();
+        if (barbers.isEmpty()) {
+            return capacity;
+        }
+
+        List<Long> profileIds = barbers.stream().map(BarberAvailabilityDto::getBarberId).collect(Collectors.toList());
+        Map<Long, List<BarberSchedule>> schedulesByBarber = barberScheduleRepository.findByBarberProfileIds(profileIds)
+            .stream()
+            .collect(Collectors.groupingBy(schedule -> schedule.getBarberProfile().getId()));
+        Map<Long, List<BarberException>> exceptionsByBarber = barberExceptionRepository
+            .findByBarberProfileIdsAndDateRange(profileIds, startDate, endDate)
+            .stream()
+            .collect(Collectors.groupingBy(exception -> exception.getBarberProfile().getId()));
+
+        for (BarberAvailabilityDto barber : barbers) {
+            List<BarberSchedule> schedules = schedulesByBarber.getOrDefault(barber.getBarberId(), List.of());
+            List<BarberException> exceptions = exceptionsByBarber.getOrDefault(barber.getBarberId(), List.of());
+            Map<LocalDate, Long> byBucket = capacity.computeIfAbsent(barber.getUserId(), id -> new HashMap<>());
+
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                int minutes = DayAvailability.of(date, schedules, exceptions, List.of()).openMinutes();
+                if (minutes > 0) {
+                    byBucket.merge(bucketStart(date, bucket), (long) minutes, Long::sum);
+                }
+            }
+        }
+        return capacity;
+    }
+
+    // Debe coincidir con los intervalos que calcula la consulta (date_trunc de PostgreSQL)
+    private static LocalDate bucketStart(LocalDate date, String bucket) {
+        return switch (bucket) {
+            case "day" -> date;
+            case "week" -> date.with(DayOfWeek.MONDAY);
+            case "month" -> date.withDayOfMonth(1);
+            default -> null;
+        };
+    }
+
+    private static void fillRatios(RevenueAnalyticsRowDto row) {
+        row.setAverageTicket(row.getCompletedCount() > 0
+            ? row.getRevenue().divide(BigDecimal.valueOf(row.getCompletedCount()), 2, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO);
+        row.setCancellationRate(row.getAppointmentCount() > 0
+            ? (double) row.getCancelledCount() / row.getAppointmentCount()
+            : 0.0);
+        if (row.getAvailableMinutes() != null) {
+            row.setUtilization(row.getAvailableMinutes() > 0
+                ? (double) row.getBookedMinutes() / row.getAvailableMinutes()
+                : 0.0);
+        }
+    }
+}
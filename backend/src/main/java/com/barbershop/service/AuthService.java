@@ -1,33 +1,51 @@
 package com.barbershop.service;
 
 import com.barbershop.config.JwtTokenProvider;
+import com.barbershop.config.TokenBlacklistCache;
+import com.barbershop.config.TokenDigest;
 import com.barbershop.dto.*;
 import com.barbershop.entity.RefreshToken;
 import com.barbershop.entity.Role;
 import com.barbershop.entity.TokenBlacklist;
 import com.barbershop.entity.User;
+import com.barbershop.exception.RefreshTokenAlreadyRotatedException;
 import com.barbershop.repository.RefreshTokenRepository;
 import com.barbershop.repository.RoleRepository;
 import com.barbershop.repository.TokenBlacklistRepository;
 import com.barbershop.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Service
 @Transactional
 public class AuthService {
 
+    private static final String REVOKE_REASON_ROTATED = "rotated";
+    private static final String REVOKE_REASON_REUSE = "reuse";
+    private static final String REVOKE_REASON_LOGOUT = "logout";
+
+    // Margen en el que presentar un refresh token ya rotado no se considera robo
+    @Value("${jwt.refresh.reuse-grace-seconds:30}")
+    private long refreshReuseGraceSeconds;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -46,6 +64,12 @@ public class AuthService {
     @Autowired
     private TokenBlacklistRepository tokenBlacklistRepository;
 
+    @Autowired
+    private TokenBlacklistCache tokenBlacklistCache;
+
+    @Autowired
+    private TokenMaintenanceService tokenMaintenanceService;
+
     public AuthResponseDto login(LoginRequestDto loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
@@ -64,15 +88,9 @@ public class AuthService {
         String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
         LocalDateTime refreshTokenExpiry = jwtTokenProvider.getRefreshTokenExpiryDate();
 
-        // Revoke previous refresh token if exists
-        refreshTokenRepository.findByUserAndIsRevokedFalse(user).ifPresent(token -> {
-            token.setIsRevoked(true);
-            refreshTokenRepository.save(token);
-        });
-
-        // Save new refresh token
-        RefreshToken newRefreshToken = new RefreshToken(refreshToken, user, refreshTokenExpiry);
-        refreshTokenRepository.save(newRefreshToken);
+        // Revoke previous refresh tokens and save the new one in a single statement
+        refreshTokenRepository.replaceActiveTokens(user.getId(), TokenDigest.sha256(refreshToken),
+            refreshTokenExpiry, LocalDateTime.now());
 
         UserDto userDto = convertToUserDto(user);
         AuthResponseDto response = new AuthResponseDto(jwt, userDto);
@@ -99,6 +117,7 @@ public class AuthService {
         user.setIsActive(true);
 
         User savedUser = userRepository.save(user);
+        userSearchIndex.indexUser(savedUser);
 
         String jwt = jwtTokenProvider.generateTokenFromUsername(savedUser.getEmail());
         UserDto userDto = convertToUserDto(savedUser);
@@ -134,22 +153,28 @@ public class AuthService {
     }
 
     public AuthResponseDto refreshToken(String refreshToken) {
+        byte[] tokenHash = TokenDigest.sha256(refreshToken);
+
         // Check if token is blacklisted
-        if (tokenBlacklistRepository.existsByToken(refreshToken)) {
+        if (tokenBlacklistCache.isBlacklisted(tokenHash)) {
             throw new RuntimeException("Refresh token has been revoked");
         }
 
         // Validate refresh token
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        Claims claims = jwtTokenProvider.getValidatedClaims(refreshToken, tokenHash);
+        if (claims == null) {
             throw new RuntimeException("Invalid or expired refresh token");
         }
 
-        String username = jwtTokenProvider.getUsernameFromToken(refreshToken);
-        RefreshToken storedToken = refreshTokenRepository.findByToken(refreshToken)
-            .orElseThrow(() -> new RuntimeException("Refresh token not found in database"));
-
-        if (storedToken.getIsRevoked() || storedToken.isExpired()) {
-            throw new RuntimeException("Refresh token is invalid or expired");
+        // Rotate: the presented token is revoked and replaced by a new one atomically
+        String username = claims.getSubject();
+        String newRefreshToken = jwtTokenProvider.generateRefreshToken(username);
+        LocalDateTime now = LocalDateTime.now();
+        byte[] newTokenHash = TokenDigest.sha256(newRefreshToken);
+        LocalDateTime newExpiry = jwtTokenProvider.getRefreshTokenExpiryDate();
+        int rotated = refreshTokenRepository.rotate(tokenHash, newTokenHash, newExpiry, now);
+        if (rotated == 0) {
+            rejectRefreshToken(tokenHash, now);
         }
 
         User user = userRepository.findByEmail(username)
@@ -160,39 +185,54 @@ public class AuthService {
 
         UserDto userDto = convertToUserDto(user);
         AuthResponseDto response = new AuthResponseDto(newJwt, userDto);
-        response.setRefreshToken(refreshToken);
+        response.setRefreshToken(newRefreshToken);
 
         return response;
     }
 
+    /**
+     * Explica por qué no se pudo rotar un refresh token. Cada token tiene como mucho
+     * un sucesor, así que volver a presentar uno ya rotado nunca emite otro:
+     * dentro del margen de gracia (otra pestaña del mismo cliente refrescó a la vez)
+     * se rechaza con {@link RefreshTokenAlreadyRotatedException} sin tocar las
+     * sesiones; pasado el margen se asume que ha sido robado y se revocan todas las
+     * sesiones del usuario.
+     */
+    private void rejectRefreshToken(byte[] tokenHash, LocalDateTime now) {
+        RefreshToken storedToken = refreshTokenRepository.findByTokenHash(tokenHash)
+            .orElseThrow(() -> new RuntimeException("Refresh token not found in database"));
+
+        if (REVOKE_REASON_ROTATED.equals(storedToken.getRevokeReason()) && storedToken.getRevokedAt() != null) {
+            if (!storedToken.getRevokedAt().isBefore(now.minusSeconds(refreshReuseGraceSeconds))) {
+                throw new RefreshTokenAlreadyRotatedException("Refresh token was already rotated");
+            }
+            refreshTokenRepository.revokeAllByUserIdInNewTransaction(storedToken.getUser().getId(), REVOKE_REASON_REUSE, now);
+            throw new RuntimeException("Refresh token reuse detected");
+        }
+        throw new RuntimeException("Refresh token is invalid or expired");
+    }
+
     public void logout(String token) {
         try {
             // Validate token format
-            if (!jwtTokenProvider.validateToken(token)) {
+            byte[] tokenHash = TokenDigest.sha256(token);
+            Claims claims = jwtTokenProvider.getValidatedClaims(token, tokenHash);
+            if (claims == null) {
                 throw new RuntimeException("Invalid token");
             }
 
-            // Get token expiry date
-            LocalDateTime expiryDate = LocalDateTime.now();
-            if (jwtTokenProvider.isTokenExpired(token)) {
-                expiryDate = LocalDateTime.now().plusSeconds(3600); // 1 hour buffer
-            } else {
-                // Token will expire in jwt.expiration milliseconds
-                expiryDate = LocalDateTime.now().plusSeconds(900); // 15 minutes (default token expiration)
-            }
+            // The blacklist entry lives exactly as long as the token itself
+            LocalDateTime expiryDate = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
 
             // Add token to blacklist
-            TokenBlacklist blacklistedToken = new TokenBlacklist(token, expiryDate, "logout");
+            TokenBlacklist blacklistedToken = new TokenBlacklist(tokenHash, expiryDate, "logout");
             tokenBlacklistRepository.save(blacklistedToken);
+            tokenBlacklistCache.add(tokenHash, expiryDate);
 
             // Revoke associated refresh tokens
-            String username = jwtTokenProvider.getUsernameFromToken(token);
-            User user = userRepository.findByEmail(username).orElse(null);
+            User user = userRepository.findByEmail(claims.getSubject()).orElse(null);
             if (user != null) {
-                refreshTokenRepository.findByUserAndIsRevokedFalse(user).ifPresent(refreshToken -> {
-                    refreshToken.setIsRevoked(true);
-                    refreshTokenRepository.save(refreshToken);
-                });
+                refreshTokenRepository.revokeAllByUserId(user.getId(), REVOKE_REASON_LOGOUT, LocalDateTime.now());
             }
 
             // Clear security context
@@ -203,14 +243,13 @@ public class AuthService {
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return tokenBlacklistRepository.existsByToken(token);
+        return tokenBlacklistCache.isBlacklisted(token);
     }
 
-    // Clean up expired tokens (should be called periodically)
+    // Clean up expired tokens (se ejecuta periódicamente desde TokenMaintenanceService)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void cleanupExpiredTokens() {
-        LocalDateTime now = LocalDateTime.now();
-        tokenBlacklistRepository.deleteByExpiryDateBefore(now);
-        refreshTokenRepository.deleteByExpiryDateBefore(now);
+        tokenMaintenanceService.purgeExpiredTokens();
     }
 
     private UserDto convertToUserDto(User user) {
@@ -1,5 +1,7 @@
 package com.barbershop.service;
 
+import com.barbershop.config.CatalogVersion;
+import com.barbershop.config.UserPrincipalCache;
 import com.barbershop.dto.BarberDto;
 import com.barbershop.dto.BarberScheduleDto;
 import com.barbershop.dto.CreateBarberRequestDto;
@@ -11,7 +13,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,19 +40,41 @@ public class BarberService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    // Foto inmutable de los barberos activos; se reconstruye cuando cambia la versión del catálogo
+    private volatile BarberCatalog catalog;
+
     public List<BarberDto> getAllActiveBarbers() {
-        return barberProfileRepository.findByIsActiveTrueOrderByRatingDesc().stream()
-            .map(this::convertToBarberDto)
-            .collect(Collectors.toList());
+        return catalog().active;
     }
 
     public BarberDto getBarberById(Long id) {
+        BarberDto cached = catalog().byId.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        // Los barberos inactivos no están en el catálogo
         BarberProfile barberProfile = barberProfileRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Barber not found with id: " + id));
         return convertToBarberDto(barberProfile);
     }
 
     public BarberDto getBarberByUserId(Long userId) {
+        BarberDto cached = catalog().byUserId.get(userId);
+        if (cached != null) {
+            return cached;
+        }
         BarberProfile barberProfile = barberProfileRepository.findByUserId(userId)
             .orElseThrow(() -> new RuntimeException("Barber profile not found for user id: " + userId));
         return convertToBarberDto(barberProfile);
@@ -76,6 +105,7 @@ public class BarberService {
         user.setAvatar(request.getAvatar() != null ? request.getAvatar() : generateAvatarUrl(request.getName())); // Usar avatar del request si está disponible
 
         User savedUser = userRepository.save(user);
+        userSearchIndex.indexUser(savedUser);
 
         // Crear perfil de barbero
         BarberProfile barberProfile = new BarberProfile();
@@ -89,6 +119,7 @@ public class BarberService {
         System.out.println("DEBUG - Before save, barberProfile specialties: " + barberProfile.getSpecialties());
 
         BarberProfile savedBarberProfile = barberProfileRepository.save(barberProfile);
+        catalogVersion.bumpBarbers();
 
         System.out.println("DEBUG - After save, savedBarberProfile specialties: " + savedBarberProfile.getSpecialties());
 
@@ -106,6 +137,8 @@ public class BarberService {
             throw new RuntimeException("Email is already taken!");
         }
 
+        userPrincipalCache.invalidate(user.getEmail());
+
         // Actualizar datos del usuario
         user.setName(request.getName());
         user.setEmail(request.getEmail());
@@ -118,7 +151,9 @@ public class BarberService {
 
         // Guardar cambios
         userRepository.save(user);
+        userSearchIndex.indexUser(user);
         BarberProfile savedBarberProfile = barberProfileRepository.save(barberProfile);
+        catalogVersion.bumpBarbers();
 
         return convertToBarberDto(savedBarberProfile);
     }
@@ -131,6 +166,9 @@ public class BarberService {
         barberProfile.getUser().setIsActive(false);
 
         barberProfileRepository.save(barberProfile);
+        userPrincipalCache.invalidate(barberProfile.getUser().getEmail());
+        catalogVersion.bumpBarbers();
+        userSearchIndex.indexUser(barberProfile.getUser());
     }
 
     public void activateBarber(Long barberId) {
@@ -141,6 +179,9 @@ public class BarberService {
         barberProfile.getUser().setIsActive(true);
 
         barberProfileRepository.save(barberProfile);
+        userPrincipalCache.invalidate(barberProfile.getUser().getEmail());
+        catalogVersion.bumpBarbers();
+        userSearchIndex.indexUser(barberProfile.getUser());
     }
 
     public void deleteBarber(Long barberId) {
@@ -149,6 +190,9 @@ public class BarberService {
 
         User user = barberProfile.getUser();
 
+        // Las citas del barbero se borran en cascada: se descuentan antes de los agregados
+        appointmentStatsService.recordUserRemoved(user.getId());
+
         // Eliminar horarios del barbero
         barberScheduleRepository.deleteByBarberProfileId(barberId);
 
@@ -157,19 +201,83 @@ public class BarberService {
 
         // Eliminar usuario
         userRepository.delete(user);
+        userPrincipalCache.invalidate(user.getEmail());
+        catalogVersion.bumpBarbers();
+        userSearchIndex.removeUser(user.getId());
     }
 
+    // La especialidad se compara sin distinguir mayúsculas ni tildes
     public List<BarberDto> getBarbersBySpecialty(String specialty) {
-        return barberProfileRepository.findBySpecialty(specialty).stream()
-            .map(this::convertToBarberDto)
-            .collect(Collectors.toList());
+        return getBarbersBySpecialties(List.of(specialty), false);
+    }
+
+    /**
+     * Barberos activos que tienen todas ({@code matchAll}) o alguna de las especialidades,
+     * ordenados por valoración. Se resuelve con el índice invertido del catálogo.
+     */
+    public List<BarberDto> getBarbersBySpecialties(List<String> specialties, boolean matchAll) {
+        BarberCatalog current = catalog();
+        BitSet matches = null;
+        for (String specialty : specialties) {
+            BitSet barbers = current.bySpecialty.getOrDefault(SearchNormalizer.normalize(specialty), new BitSet());
+            if (matches == null) {
+                matches = (BitSet) barbers.clone();
+            } else if (matchAll) {
+                matches.and(barbers);
+            } else {
+                matches.or(barbers);
+            }
+        }
+        if (matches == null) {
+            return List.of();
+        }
+
+        List<BarberDto> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(current.active.get(i));
+        }
+        return result;
     }
 
     public long getActiveBarberCount() {
-        return barberProfileRepository.countActiveBarbers();
+        return catalog().active.size();
+    }
+
+    private BarberCatalog catalog() {
+        BarberCatalog current = catalog;
+        if (current != null && current.version == catalogVersion.getBarbersVersion()) {
+            return current;
+        }
+        return rebuildCatalog();
+    }
+
+    private synchronized BarberCatalog rebuildCatalog() {
+        long version = catalogVersion.getBarbersVersion();
+        BarberCatalog current = catalog;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        // Número fijo de consultas: perfiles con usuario y especialidades, y todos sus horarios
+        List<BarberProfile> profiles = barberProfileRepository.findActiveWithUserAndSpecialties();
+        List<Long> profileIds = profiles.stream().map(BarberProfile::getId).collect(Collectors.toList());
+        Map<Long, List<BarberSchedule>> schedulesByBarber = profileIds.isEmpty()
+            ? Map.of()
+            : barberScheduleRepository.findByBarberProfileIds(profileIds).stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getBarberProfile().getId()));
+
+        List<BarberDto> active = profiles.stream()
+            .map(profile -> convertToBarberDto(profile, schedulesByBarber.getOrDefault(profile.getId(), List.of())))
+            .collect(Collectors.toList());
+        catalog = new BarberCatalog(version, active);
+        return catalog;
     }
 
     private BarberDto convertToBarberDto(BarberProfile barberProfile) {
+        List<BarberSchedule> schedules = barberScheduleRepository.findByBarberProfileIdOrderByDayOfWeekAscStartTimeAsc(barberProfile.getId());
+        return convertToBarberDto(barberProfile, schedules);
+    }
+
+    private BarberDto convertToBarberDto(BarberProfile barberProfile, List<BarberSchedule> schedules) {
         User user = barberProfile.getUser();
 
         BarberDto barberDto = new BarberDto();
@@ -179,14 +287,12 @@ public class BarberService {
         barberDto.setEmail(user.getEmail());
         barberDto.setPhone(user.getPhone());
         barberDto.setAvatar(user.getAvatar());
-        barberDto.setSpecialties(barberProfile.getSpecialties());
+        barberDto.setSpecialties(barberProfile.getSpecialties() != null ? List.copyOf(barberProfile.getSpecialties()) : null);
         barberDto.setRating(barberProfile.getRating());
         barberDto.setExperience(barberProfile.getExperience());
         barberDto.setDescription(barberProfile.getDescription());
         barberDto.setIsActive(barberProfile.getIsActive());
 
-        // Cargar horarios si existen
-        List<BarberSchedule> schedules = barberScheduleRepository.findByBarberProfileIdOrderByDayOfWeekAscStartTimeAsc(barberProfile.getId());
         List<BarberScheduleDto> scheduleDtos = schedules.stream()
             .map(this::convertToBarberScheduleDto)
             .collect(Collectors.toList());
@@ -208,4 +314,37 @@ public class BarberService {
     private String generateAvatarUrl(String name) {
         return "https://api.dicebear.com/7.x/avataaars/svg?seed=" + name.replace(" ", "");
     }
+
+    /**
+     * Barberos activos indexados por id de perfil, id de usuario y especialidad.
+     * El índice de especialidades va de la especialidad normalizada a las posiciones
+     * de sus barberos en {@code active}, así que las búsquedas AND/OR son operaciones
+     * sobre bits y conservan el orden por valoración.
+     * Los DTOs se comparten entre peticiones y no deben modificarse.
+     */
+    private static final class BarberCatalog {
+        private final long version;
+        private final List<BarberDto> active;
+        private final Map<Long, BarberDto> byId;
+        private final Map<Long, BarberDto> byUserId;
+        private final Map<String, BitSet> bySpecialty;
+
+        BarberCatalog(long version, List<BarberDto> active) {
+            this.version = version;
+            this.active = List.copyOf(active);
+            this.byId = active.stream().collect(Collectors.toUnmodifiableMap(BarberDto::getId, dto -> dto));
+            this.byUserId = active.stream().collect(Collectors.toUnmodifiableMap(BarberDto::getUserId, dto -> dto));
+
+            Map<String, BitSet> specialties = new HashMap<>();
+            for (int i = 0; i < active.size(); i++) {
+                List<String> barberSpecialties = active.get(i).getSpecialties();
+                if (barberSpecialties != null) {
+                    for (String specialty : barberSpecialties) {
+                        specialties.computeIfAbsent(SearchNormalizer.normalize(specialty), s -> new BitSet()).set(i);
+                    }
+                }
+            }
+            this.bySpecialty = Collections.unmodifiableMap(specialties);
+        }
+    }
 }
\ No newline at end of file
@@ -3,21 +3,25 @@ package com.barbershop.service;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Service
-public class CloudinaryService {
+@ConditionalOnProperty(name = "upload.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements ImageStorage {
 
     @Autowired
     private Cloudinary cloudinary;
 
-    public String uploadFile(MultipartFile file, String folder) throws IOException {
+    // Se pasa el File para que el SDK lo envíe desde disco sin cargarlo entero en memoria
+    @Override
+    public String store(Path file, String folder, String originalFilename) throws IOException {
         @SuppressWarnings("unchecked")
-        Map<String, Object> uploadResult = cloudinary.uploader().upload(file.getBytes(),
+        Map<String, Object> uploadResult = cloudinary.uploader().upload(file.toFile(),
             ObjectUtils.asMap(
                 "folder", folder,
                 "resource_type", "auto"
@@ -26,7 +30,8 @@ public class CloudinaryService {
         return uploadResult.get("secure_url").toString();
     }
 
-    public void deleteFile(String publicId) throws IOException {
+    @Override
+    public void delete(String publicId) throws IOException {
         cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
     }
 }
@@ -0,0 +1,255 @@
+package com.barbershop.service;
+
+import com.barbershop.dto.BookedSlotDto;
+import com.barbershop.entity.BarberException;
+import com.barbershop.entity.BarberSchedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Disponibilidad de un barbero para un día concreto.
+ *
+ * Se construye en memoria a partir del horario semanal, las excepciones del día
+ * y las citas ya reservadas, de forma que calcular los slots no requiere ir a
+ * la base de datos. Internamente trabaja con intervalos [inicio, fin) en minutos
+ * del día, ordenados y fusionados, así que el coste depende del número de
+ * bloques y citas del día y no del número de slots.
+ */
+public class DayAvailability {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Intervalos en los que el barbero trabaja según horario y excepciones
+    private final List<int[]> open;
+
+    // Intervalos ocupados por citas, ordenados por inicio
+    private final List<int[]> booked;
+
+    private DayAvailability(List<int[]> open, List<int[]> booked) {
+        this.open = open;
+        this.booked = booked;
+    }
+
+    /**
+     * Construye la disponibilidad del día. Las listas pueden contener filas de
+     * otros días (por ejemplo, el horario semanal completo); se filtran aquí.
+     * De las citas se tienen en cuenta también las del día anterior y el siguiente,
+     * igual que al reservar, para descontar las que cruzan la medianoche.
+     *
+     * Reglas: los bloques disponibles del horario se unen y los no disponibles se
+     * restan. Una excepción de día completo no disponible cierra el día; si es
+     * disponible, el barbero trabaja todos sus bloques de ese día aunque estén
+     * marcados como no disponibles. Las excepciones por rango abren o cierran ese
+     * rango y, si se solapan, prevalece la primera.
+     */
+    public static DayAvailability of(LocalDate date,
+                                     List<BarberSchedule> schedules,
+                                     List<BarberException> exceptions,
+                                     List<BookedSlotDto> bookings) {
+        int dayOfWeek = date.getDayOfWeek().getValue() % 7; // 0=domingo, 1=lunes, etc.
+
+        List<BarberSchedule> daySchedules = new ArrayList<>();
+        for (BarberSchedule schedule : schedules) {
+            if (schedule.getDayOfWeek().equals(dayOfWeek)) {
+                daySchedules.add(schedule);
+            }
+        }
+
+        List<BarberException> dayExceptions = new ArrayList<>();
+        for (BarberException exception : exceptions) {
+            if (date.equals(exception.getExceptionDate())) {
+                dayExceptions.add(exception);
+            }
+        }
+
+        List<int[]> open = new ArrayList<>();
+        BarberException allDay = dayExceptions.stream()
+            .filter(exception -> Boolean.TRUE.equals(exception.getAllDay()))
+            .findFirst()
+            .orElse(null);
+
+        if (allDay != null) {
+            if (Boolean.TRUE.equals(allDay.getIsAvailable())) {
+                for (BarberSchedule schedule : daySchedules) {
+                    open.add(interval(schedule.getStartTime(), schedule.getEndTime()));
+                }
+                open = normalize(open);
+            }
+        } else {
+            // 1. Horario semanal permanente
+            for (BarberSchedule schedule : daySchedules) {
+                if (Boolean.TRUE.equals(schedule.getIsAvailable())) {
+                    open.add(interval(schedule.getStartTime(), schedule.getEndTime()));
+                }
+            }
+            open = normalize(open);
+            for (BarberSchedule schedule : daySchedules) {
+                if (!Boolean.TRUE.equals(schedule.getIsAvailable())) {
+                    open = subtract(open, interval(schedule.getStartTime(), schedule.getEndTime()));
+                }
+            }
+
+            // 2. Excepciones por rango, en orden inverso para que la primera tenga prioridad
+            for (int i = dayExceptions.size() - 1; i >= 0; i--) {
+                BarberException exception = dayExceptions.get(i);
+                if (exception.getStartTime() == null || exception.getEndTime() == null) {
+                    continue;
+                }
+                int[] range = interval(exception.getStartTime(), exception.getEndTime());
+                if (Boolean.TRUE.equals(exception.getIsAvailable())) {
+                    open.add(range);
+                    open = normalize(open);
+                } else {
+                    open = subtract(open, range);
+                }
+            }
+        }
+
+        // 3. Citas ya reservadas, en minutos relativos a la medianoche del día. Las del
+        // día anterior quedan en negativo y solo cuentan si cruzan la medianoche (o si
+        // su margen lo hace); las del día siguiente quedan más allá de MINUTES_PER_DAY.
+        List<int[]> booked = new ArrayList<>();
+        for (BookedSlotDto booking : bookings) {
+            long days = ChronoUnit.DAYS.between(date, booking.getDate());
+            if (days < -1 || days > 1) {
+                continue;
+            }
+            int start = (int) days * MINUTES_PER_DAY + toMinute(booking.getTime());
+            int duration = booking.getDuration() != null ? booking.getDuration() : 0;
+            booked.add(new int[] { start, start + duration });
+        }
+        booked.sort(Comparator.comparingInt(range -> range[0]));
+
+        return new DayAvailability(open, booked);
+    }
+
+    /**
+     * Indica si el barbero trabaja en ese minuto según horario y excepciones,
+     * sin tener en cuenta las citas reservadas.
+     */
+    public boolean isOpen(LocalTime time) {
+        int minute = toMinute(time);
+        for (int[] range : open) {
+            if (minute >= range[0] && minute < range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Minutos de trabajo del día según horario y excepciones.
+     */
+    public int openMinutes() {
+        int total = 0;
+        for (int[] range : open) {
+            total += range[1] - range[0];
+        }
+        return total;
+    }
+
+    /**
+     * Slots de {@code slotMinutes} minutos, con la rejilla del mismo tamaño.
+     */
+    public List<LocalTime> freeSlots(int slotMinutes) {
+        return freeSlots(slotMinutes, slotMinutes, 0);
+    }
+
+    /**
+     * Horas de inicio en las que cabe un servicio de {@code durationMinutes} minutos
+     * sin salirse del horario ni pisar ninguna cita.
+     *
+     * @param durationMinutes    duración del servicio
+     * @param granularityMinutes separación entre horas de inicio, alineadas desde medianoche
+     * @param bufferMinutes      margen libre exigido antes y después de cada cita existente
+     */
+    public List<LocalTime> freeSlots(int durationMinutes, int granularityMinutes, int bufferMinutes) {
+        if (granularityMinutes <= 0) {
+            throw new IllegalArgumentException("Slot granularity must be greater than 0");
+        }
+        List<int[]> blocked = new ArrayList<>();
+        for (int[] range : booked) {
+            blocked.add(new int[] { range[0] - bufferMinutes, range[1] + bufferMinutes });
+        }
+
+        List<LocalTime> slots = new ArrayList<>();
+        for (int[] free : subtractAll(open, normalize(blocked))) {
+            int first = ((free[0] + granularityMinutes - 1) / granularityMinutes) * granularityMinutes;
+            for (int start = first; start + durationMinutes <= free[1]; start += granularityMinutes) {
+                slots.add(LocalTime.of(start / 60, start % 60));
+            }
+        }
+        return slots;
+    }
+
+    // ===================== OPERACIONES SOBRE INTERVALOS =====================
+
+    // Ordena por inicio y fusiona los intervalos que se solapan o se tocan
+    private static List<int[]> normalize(List<int[]> ranges) {
+        List<int[]> sorted = new ArrayList<>(ranges);
+        sorted.removeIf(range -> range[0] >= range[1]);
+        sorted.sort(Comparator.comparingInt(range -> range[0]));
+
+        List<int[]> merged = new ArrayList<>();
+        for (int[] range : sorted) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1]) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(new int[] { range[0], range[1] });
+            }
+        }
+        return merged;
+    }
+
+    private static List<int[]> subtract(List<int[]> ranges, int[] removed) {
+        List<int[]> single = new ArrayList<>();
+        single.add(removed);
+        return subtractAll(ranges, normalize(single));
+    }
+
+    // Resta a unos intervalos normalizados otros intervalos normalizados en una sola pasada
+    private static List<int[]> subtractAll(List<int[]> ranges, List<int[]> removed) {
+        List<int[]> result = new ArrayList<>();
+        int j = 0;
+        for (int[] range : ranges) {
+            int start = range[0];
+            int end = range[1];
+            while (j < removed.size() && removed.get(j)[1] <= start) {
+                j++;
+            }
+            int k = j;
+            while (k < removed.size() && removed.get(k)[0] < end) {
+                int[] cut = removed.get(k);
+                if (cut[0] > start) {
+                    result.add(new int[] { start, cut[0] });
+                }
+                start = Math.max(start, cut[1]);
+                k++;
+            }
+            if (start < end) {
+                result.add(new int[] { start, end });
+            }
+        }
+        return result;
+    }
+
+    private static int[] interval(LocalTime start, LocalTime end) {
+        return new int[] { toMinute(start), toEndMinute(end) };
+    }
+
+    static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    // Una hora de fin 00:00 se interpreta como medianoche del final del día
+    static int toEndMinute(LocalTime time) {
+        int minute = toMinute(time);
+        return minute == 0 ? MINUTES_PER_DAY : minute;
+    }
+}
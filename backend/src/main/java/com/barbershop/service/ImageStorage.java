@@ -0,0 +1,22 @@
+package com.barbershop.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Destino final de las imágenes subidas. La implementación se elige con
+ * {@code upload.storage}: {@code cloudinary} (por defecto) o {@code local}.
+ */
+public interface ImageStorage {
+
+    /**
+     * Envía al almacenamiento un fichero ya volcado a disco y devuelve su URL pública.
+     *
+     * @param file             fichero temporal con el contenido; no se borra aquí
+     * @param folder           carpeta lógica de destino, por ejemplo "barbershop/services"
+     * @param originalFilename nombre enviado por el cliente, puede ser null
+     */
+    String store(Path file, String folder, String originalFilename) throws IOException;
+
+    void delete(String publicId) throws IOException;
+}
@@ -0,0 +1,233 @@
+package com.barbershop.service;
+
+import com.barbershop.dto.UploadJobDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pipeline de subida de imágenes.
+ *
+ * La petición solo vuelca el multipart a un fichero temporal (Tomcat ya lo tiene
+ * en disco, así que normalmente es un movimiento) y encola el trabajo; la subida
+ * al almacenamiento se hace en el ejecutor acotado {@code uploadExecutor}. El
+ * cliente consulta el estado con el ID del trabajo. Si la subida falla, el
+ * fichero temporal se conserva hasta que caduca el trabajo y se puede reintentar
+ * sin volver a enviar la imagen.
+ */
+@Service
+public class ImageUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadService.class);
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private ThreadPoolTaskExecutor uploadExecutor;
+
+    @Value("${upload.spool-directory:${java.io.tmpdir}/barbershop-upload-spool}")
+    private String spoolDirectory;
+
+    @Value("${upload.jobs.ttl-minutes:60}")
+    private long jobTtlMinutes;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Vuelca la imagen a disco y encola su subida. Devuelve el trabajo en estado PENDING.
+     */
+    public UploadJobDto submit(MultipartFile file, String folder) {
+        return toDto(enqueue(file, folder));
+    }
+
+    /**
+     * Igual que {@link #submit}, pero devuelve un futuro que se completa con la URL
+     * final. Permite responder de forma asíncrona sin ocupar el hilo de la petición.
+     */
+    public CompletableFuture<String> submitAndAwait(MultipartFile file, String folder) {
+        return enqueue(file, folder).result;
+    }
+
+    public UploadJobDto getJob(String jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    /**
+     * Reintenta un trabajo fallido reutilizando el fichero ya recibido.
+     */
+    public UploadJobDto retry(String jobId) {
+        UploadJob job = findJob(jobId);
+        synchronized (job) {
+            if (!FAILED.equals(job.status)) {
+                throw new RuntimeException("Only failed upload jobs can be retried");
+            }
+            if (!Files.exists(job.spoolFile)) {
+                throw new RuntimeException("Upload data is no longer available, upload the file again");
+            }
+            job.status = PENDING;
+            job.error = null;
+            job.finishedAt = null;
+            if (job.result.isDone()) {
+                job.result = new CompletableFuture<>();
+            }
+        }
+        schedule(job);
+        return toDto(job);
+    }
+
+    // ===================== PIPELINE =====================
+
+    private UploadJob enqueue(MultipartFile file, String folder) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("File is empty");
+        }
+        purgeExpiredJobs();
+
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), folder, file.getOriginalFilename(), file.getSize());
+        try {
+            Path directory = Paths.get(spoolDirectory).toAbsolutePath();
+            Files.createDirectories(directory);
+            // transferTo(File) permite a Tomcat renombrar su fichero temporal en lugar de
+            // copiarlo; el destino no debe existir todavía
+            job.spoolFile = directory.resolve("upload-" + job.id + ".tmp");
+            file.transferTo(job.spoolFile.toFile());
+        } catch (IOException e) {
+            deleteSpoolFile(job);
+            throw new RuntimeException("Error receiving file: " + e.getMessage());
+        }
+
+        jobs.put(job.id, job);
+        schedule(job);
+        return job;
+    }
+
+    private void schedule(UploadJob job) {
+        try {
+            uploadExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            deleteSpoolFile(job);
+            throw new RuntimeException("Upload queue is full, try again later");
+        }
+    }
+
+    private void run(UploadJob job) {
+        synchronized (job) {
+            job.status = RUNNING;
+            job.attempts++;
+        }
+        try {
+            String url = imageStorage.store(job.spoolFile, job.folder, job.fileName);
+            synchronized (job) {
+                job.url = url;
+                job.status = COMPLETED;
+                job.finishedAt = LocalDateTime.now();
+            }
+            deleteSpoolFile(job);
+            job.result.complete(url);
+        } catch (Exception e) {
+            logger.warn("Upload job {} failed: {}", job.id, e.getMessage());
+            synchronized (job) {
+                job.error = e.getMessage();
+                job.status = FAILED;
+                job.finishedAt = LocalDateTime.now();
+            }
+            job.result.completeExceptionally(e);
+        }
+    }
+
+    // Los trabajos terminados se olvidan pasado el TTL, junto con su fichero temporal
+    private void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(Duration.ofMinutes(jobTtlMinutes));
+        jobs.values().removeIf(job -> {
+            LocalDateTime finishedAt = job.finishedAt;
+            if (finishedAt != null && finishedAt.isBefore(limit)) {
+                deleteSpoolFile(job);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private UploadJob findJob(String jobId) {
+        UploadJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Upload job not found");
+        }
+        return job;
+    }
+
+    private void deleteSpoolFile(UploadJob job) {
+        if (job.spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.spoolFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete upload spool file {}", job.spoolFile);
+        }
+    }
+
+    private static UploadJobDto toDto(UploadJob job) {
+        UploadJobDto dto = new UploadJobDto();
+        synchronized (job) {
+            dto.setId(job.id);
+            dto.setStatus(job.status);
+            dto.setFileName(job.fileName);
+            dto.setSize(job.size);
+            dto.setUrl(job.url);
+            dto.setError(job.error);
+            dto.setAttempts(job.attempts);
+            dto.setCreatedAt(job.createdAt);
+            dto.setFinishedAt(job.finishedAt);
+        }
+        return dto;
+    }
+
+    // Estado de un trabajo; los campos mutables se leen y escriben bajo el monitor del propio trabajo
+    private static final class UploadJob {
+        final String id;
+        final String folder;
+        final String fileName;
+        final long size;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        Path spoolFile;
+        String status = PENDING;
+        String url;
+        String error;
+        int attempts;
+        volatile LocalDateTime finishedAt;
+        volatile CompletableFuture<String> result = new CompletableFuture<>();
+
+        UploadJob(String id, String folder, String fileName, long size) {
+            this.id = id;
+            this.folder = folder;
+            this.fileName = fileName;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.barbershop.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Almacenamiento en el sistema de ficheros local, para desarrollo y pruebas
+ * sin credenciales de Cloudinary. Se activa con {@code upload.storage=local}.
+ * Las imágenes se sirven desde la propia aplicación en /uploads/**
+ * (ver LocalUploadResourceConfig).
+ */
+@Service
+@ConditionalOnProperty(name = "upload.storage", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+
+    @Value("${upload.local.directory:${java.io.tmpdir}/barbershop-uploads}")
+    private String directory;
+
+    @Value("${upload.local.base-url:${server.servlet.context-path:}/uploads}")
+    private String baseUrl;
+
+    public LocalImageStorage() {
+    }
+
+    LocalImageStorage(String directory, String baseUrl) {
+        this.directory = directory;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public String store(Path file, String folder, String originalFilename) throws IOException {
+        String name = UUID.randomUUID() + extension(originalFilename);
+        Path target = resolve(folder + "/" + name);
+        Files.createDirectories(target.getParent());
+        Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+        return baseUrl + "/" + folder + "/" + name;
+    }
+
+    @Override
+    public void delete(String publicId) throws IOException {
+        Files.deleteIfExists(resolve(publicId));
+    }
+
+    // Impide que una carpeta o un identificador con ".." salga del directorio base
+    private Path resolve(String relative) {
+        Path root = Paths.get(directory).toAbsolutePath().normalize();
+        Path target = root.resolve(relative).normalize();
+        if (!target.startsWith(root)) {
+            throw new RuntimeException("Invalid storage path: " + relative);
+        }
+        return target;
+    }
+
+    private static String extension(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        String extension = dot >= 0 ? filename.substring(dot).toLowerCase() : "";
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
+    }
+}
@@ -1,15 +1,19 @@
 package com.barbershop.service;
 
+import com.barbershop.config.CatalogVersion;
 import com.barbershop.dto.*;
 import com.barbershop.entity.*;
 import com.barbershop.repository.*;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +29,41 @@ public class ScheduleService {
     @Autowired
     private BarberProfileRepository barberProfileRepository;
 
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Separación entre horas de inicio ofrecidas, alineadas desde medianoche
+    @Value("${schedule.slots.granularity-minutes:30}")
+    private int slotGranularityMinutes;
+
+    // Margen libre exigido antes y después de cada cita existente
+    @Value("${schedule.slots.buffer-minutes:0}")
+    private int slotBufferMinutes;
+
+    // Estados de cita que ocupan el hueco del barbero
+    private static final List<AppointmentStatus> BLOCKING_STATUSES =
+        List.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+
+    // Tamaño máximo del rango de la matriz de disponibilidad
+    private static final int MAX_GRID_DAYS = 31;
+
+    // Una granularidad de 0 dividiría por cero al calcular slots: se rechaza al arrancar
+    @PostConstruct
+    public void validateSlotSettings() {
+        if (slotGranularityMinutes <= 0) {
+            throw new IllegalStateException("schedule.slots.granularity-minutes must be greater than 0");
+        }
+        if (slotBufferMinutes < 0) {
+            throw new IllegalStateException("schedule.slots.buffer-minutes must not be negative");
+        }
+    }
+
     // ===================== GESTIÓN DE HORARIOS SEMANALES (PERMANENTES) =====================
 
     public List<BarberScheduleDto> getBarberSchedule(Long barberProfileId) {
@@ -46,6 +85,7 @@ public class ScheduleService {
         schedule.setIsAvailable(request.getIsAvailable());
 
         BarberSchedule savedSchedule = barberScheduleRepository.save(schedule);
+        catalogVersion.bumpBarbers(); // El horario semanal forma parte del catálogo público
         return convertToBarberScheduleDto(savedSchedule);
     }
 
@@ -59,11 +99,13 @@ public class ScheduleService {
         schedule.setIsAvailable(request.getIsAvailable());
 
         BarberSchedule savedSchedule = barberScheduleRepository.save(schedule);
+        catalogVersion.bumpBarbers();
         return convertToBarberScheduleDto(savedSchedule);
     }
 
     public void deleteBarberSchedule(Long scheduleId) {
         barberScheduleRepository.deleteById(scheduleId);
+        catalogVersion.bumpBarbers();
     }
 
     public List<BarberScheduleDto> updateFullWeekSchedule(Long barberProfileId, List<UpdateBarberScheduleRequestDto> schedules) {
@@ -87,6 +129,7 @@ public class ScheduleService {
             .collect(Collectors.toList());
 
         List<BarberSchedule> savedSchedules = barberScheduleRepository.saveAll(newSchedules);
+        catalogVersion.bumpBarbers();
 
         return savedSchedules.stream()
             .map(this::convertToBarberScheduleDto)
@@ -152,83 +195,120 @@ public class ScheduleService {
      * considerando su horario semanal permanente y las excepciones temporales
      */
     public boolean isBarberAvailable(Long barberProfileId, LocalDate date, LocalTime time) {
-        // 1. Verificar si hay una excepción para esta fecha
-        List<BarberException> exceptions = barberExceptionRepository
-            .findByBarberProfileIdAndExceptionDate(barberProfileId, date);
-
-        for (BarberException exception : exceptions) {
-            // Si la excepción es para todo el día
-            if (exception.getAllDay()) {
-                return exception.getIsAvailable();
-            }
-
-            // Si la excepción es para un rango de horas específico
-            if (exception.getStartTime() != null && exception.getEndTime() != null) {
-                if (time.compareTo(exception.getStartTime()) >= 0 && time.compareTo(exception.getEndTime()) < 0) {
-                    return exception.getIsAvailable();
-                }
-            }
-        }
+        return loadDayAvailability(barberProfileId, date, List.of()).isOpen(time);
+    }
 
-        // 2. Si no hay excepciones, verificar el horario semanal permanente
-        int dayOfWeek = date.getDayOfWeek().getValue() % 7; // Convertir a 0=domingo, 1=lunes, etc.
+    /**
+     * Obtiene los horarios disponibles de un barbero para una fecha específica
+     * Retorna los inicios de bloques de la granularidad configurada que no estén ya reservados.
+     */
+    public List<LocalTime> getAvailableTimeSlots(Long barberProfileId, LocalDate date) {
+        return getAvailableTimeSlots(barberProfileId, date, null);
+    }
 
+    /**
+     * Horas de inicio en las que cabe completo un servicio de la duración indicada.
+     * Tiene en cuenta todos los bloques del día, las excepciones y las citas con su margen.
+     * Horario, excepciones y citas se cargan una sola vez y los slots se calculan en memoria.
+     */
+    public List<LocalTime> getAvailableTimeSlots(Long barberProfileId, LocalDate date, Integer durationMinutes) {
+        int duration = durationMinutes != null ? durationMinutes : slotGranularityMinutes;
+        int dayOfWeek = date.getDayOfWeek().getValue() % 7;
         List<BarberSchedule> schedules = barberScheduleRepository
-            .findByBarberProfileIdOrderByDayOfWeekAscStartTimeAsc(barberProfileId);
+            .findByBarberProfileIdAndDayOfWeekOrderByStartTimeAsc(barberProfileId, dayOfWeek);
+        List<BarberException> exceptions = barberExceptionRepository
+            .findByBarberProfileIdAndExceptionDate(barberProfileId, date);
+        // Día anterior y siguiente incluidos para las citas que cruzan la medianoche
+        List<BookedSlotDto> bookings = appointmentRepository
+            .findBookedSlotsByBarberProfileAndDateRange(barberProfileId, date.minusDays(1), date.plusDays(1),
+                BLOCKING_STATUSES);
 
-        for (BarberSchedule schedule : schedules) {
-            if (schedule.getDayOfWeek().equals(dayOfWeek)) {
-                if (!schedule.getIsAvailable()) {
-                    return false;
-                }
+        return DayAvailability.of(date, schedules, exceptions, bookings)
+            .freeSlots(duration, slotGranularityMinutes, slotBufferMinutes);
+    }
 
-                if (time.compareTo(schedule.getStartTime()) >= 0 && time.compareTo(schedule.getEndTime()) < 0) {
-                    return true;
-                }
-            }
+    /**
+     * Duración a usar para calcular slots: la del servicio si se indica, si no la
+     * duración explícita y, en su defecto, la granularidad configurada.
+     */
+    public Integer resolveSlotDuration(Long serviceId, Integer durationMinutes) {
+        if (serviceId != null) {
+            return serviceRepository.findById(serviceId)
+                .map(com.barbershop.entity.Service::getDuration)
+                .orElseThrow(() -> new RuntimeException("Service not found with id: " + serviceId));
         }
-
-        // 3. Si no hay horario definido para este día, el barbero no está disponible
-        return false;
+        if (durationMinutes != null && durationMinutes <= 0) {
+            throw new RuntimeException("Duration must be greater than zero");
+        }
+        return durationMinutes;
     }
 
     /**
-     * Obtiene los horarios disponibles de un barbero para una fecha específica
-     * Retorna lista de bloques de 30 minutos disponibles
+     * Matriz de disponibilidad (barberos × días × slots) para un rango de fechas.
+     * Se resuelve con un número fijo de consultas (barberos, horarios, excepciones y citas)
+     * y el resto se calcula en memoria. Si no se indican barberos se incluyen todos los activos.
      */
-    public List<LocalTime> getAvailableTimeSlots(Long barberProfileId, LocalDate date) {
-        List<LocalTime> availableSlots = new java.util.ArrayList<>();
+    public List<BarberAvailabilityDto> getAvailabilityGrid(List<Long> barberProfileIds, LocalDate startDate, LocalDate endDate) {
+        return getAvailabilityGrid(barberProfileIds, startDate, endDate, null);
+    }
 
-        // Obtener horario del día
-        int dayOfWeek = date.getDayOfWeek().getValue() % 7;
-        List<BarberSchedule> schedules = barberScheduleRepository
-            .findByBarberProfileIdOrderByDayOfWeekAscStartTimeAsc(barberProfileId);
+    public List<BarberAvailabilityDto> getAvailabilityGrid(List<Long> barberProfileIds, LocalDate startDate, LocalDate endDate,
+                                                           Integer durationMinutes) {
+        int duration = durationMinutes != null ? durationMinutes : slotGranularityMinutes;
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate) >= MAX_GRID_DAYS) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_GRID_DAYS + " days");
+        }
 
-        LocalTime startTime = null;
-        LocalTime endTime = null;
+        List<BarberAvailabilityDto> barbers = barberProfileIds == null || barberProfileIds.isEmpty()
+            ? barberProfileRepository.findActiveBarbersForAvailability()
+            : barberProfileRepository.findActiveBarbersForAvailabilityByIds(barberProfileIds);
 
-        for (BarberSchedule schedule : schedules) {
-            if (schedule.getDayOfWeek().equals(dayOfWeek) && schedule.getIsAvailable()) {
-                startTime = schedule.getStartTime();
-                endTime = schedule.getEndTime();
-                break;
-            }
+        if (barbers.isEmpty()) {
+            return barbers;
         }
 
-        if (startTime == null) {
-            return availableSlots; // No hay horario para este día
-        }
+        List<Long> profileIds = barbers.stream().map(BarberAvailabilityDto::getBarberId).collect(Collectors.toList());
+        List<Long> userIds = barbers.stream().map(BarberAvailabilityDto::getUserId).collect(Collectors.toList());
 
-        // Generar slots de 30 minutos
-        LocalTime currentTime = startTime;
-        while (currentTime.isBefore(endTime)) {
-            if (isBarberAvailable(barberProfileId, date, currentTime)) {
-                availableSlots.add(currentTime);
+        Map<Long, List<BarberSchedule>> schedulesByBarber = barberScheduleRepository.findByBarberProfileIds(profileIds)
+            .stream()
+            .collect(Collectors.groupingBy(schedule -> schedule.getBarberProfile().getId()));
+        Map<Long, List<BarberException>> exceptionsByBarber = barberExceptionRepository
+            .findByBarberProfileIdsAndDateRange(profileIds, startDate, endDate)
+            .stream()
+            .collect(Collectors.groupingBy(exception -> exception.getBarberProfile().getId()));
+        Map<Long, Map<LocalDate, List<BookedSlotDto>>> bookingsByBarber = appointmentRepository
+            .findBookedSlotsByBarbersAndDateRange(userIds, startDate.minusDays(1), endDate.plusDays(1), BLOCKING_STATUSES)
+            .stream()
+            .collect(Collectors.groupingBy(BookedSlotDto::getBarberId, Collectors.groupingBy(BookedSlotDto::getDate)));
+
+        for (BarberAvailabilityDto barber : barbers) {
+            List<BarberSchedule> schedules = schedulesByBarber.getOrDefault(barber.getBarberId(), List.of());
+            List<BarberException> exceptions = exceptionsByBarber.getOrDefault(barber.getBarberId(), List.of());
+            Map<LocalDate, List<BookedSlotDto>> bookings = bookingsByBarber.getOrDefault(barber.getUserId(), Map.of());
+
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                List<BookedSlotDto> dayBookings = new java.util.ArrayList<>(bookings.getOrDefault(date.minusDays(1), List.of()));
+                dayBookings.addAll(bookings.getOrDefault(date, List.of()));
+                dayBookings.addAll(bookings.getOrDefault(date.plusDays(1), List.of()));
+                DayAvailability day = DayAvailability.of(date, schedules, exceptions, dayBookings);
+                barber.getSlots().put(date, day.freeSlots(duration, slotGranularityMinutes, slotBufferMinutes));
             }
-            currentTime = currentTime.plusMinutes(30);
         }
 
-        return availableSlots;
+        return barbers;
+    }
+
+    private DayAvailability loadDayAvailability(Long barberProfileId, LocalDate date, List<BookedSlotDto> bookings) {
+        int dayOfWeek = date.getDayOfWeek().getValue() % 7;
+        List<BarberSchedule> schedules = barberScheduleRepository
+            .findByBarberProfileIdAndDayOfWeekOrderByStartTimeAsc(barberProfileId, dayOfWeek);
+        List<BarberException> exceptions = barberExceptionRepository
+            .findByBarberProfileIdAndExceptionDate(barberProfileId, date);
+        return DayAvailability.of(date, schedules, exceptions, bookings);
     }
 
     // ===================== CONVERSORES =====================
@@ -0,0 +1,153 @@
+package com.barbershop.service;
+
+import com.barbershop.dto.BarberDto;
+import com.barbershop.dto.SearchPageDto;
+import com.barbershop.dto.SearchResultDto;
+import com.barbershop.dto.ServiceDto;
+import com.barbershop.dto.UserDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Búsqueda unificada de usuarios, servicios y barberos con resultados ordenados
+ * por relevancia. La comparación no distingue mayúsculas ni tildes.
+ *
+ * Los usuarios (decenas de miles) se buscan con el índice de trigramas de
+ * {@link UserSearchIndex}. Los servicios y barberos activos son pocos y se puntúan
+ * recorriendo el catálogo en memoria de ServiceService y BarberService.
+ */
+@Service
+public class SearchService {
+
+    public static final Set<String> ALL_TYPES = Set.of("user", "service", "barber");
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Fracción mínima de trigramas de la consulta para considerar un usuario candidato
+    private static final double MIN_TRIGRAM_SHARE = 0.5;
+
+    // Por debajo de un trigrama la consulta coincidiría con casi todos los usuarios
+    static final int MIN_USER_QUERY_LENGTH = 3;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private ServiceService serviceService;
+
+    @Autowired
+    private BarberService barberService;
+
+    public SearchPageDto search(String query, Set<String> types, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        String q = SearchNormalizer.normalize(query);
+        if (q.isEmpty()) {
+            return new SearchPageDto(List.of(), pageNumber, pageSize, 0);
+        }
+        String qDigits = q.replaceAll("\\D", "");
+
+        List<SearchResultDto> matches = new ArrayList<>();
+        if (types.contains("user") && q.length() >= MIN_USER_QUERY_LENGTH) {
+            searchUsers(q, qDigits, matches);
+        }
+        if (types.contains("service")) {
+            for (ServiceDto service : serviceService.getAllActiveServices()) {
+                double score = Math.max(
+                    fieldScore(q, SearchNormalizer.normalize(service.getName())),
+                    0.5 * fieldScore(q, SearchNormalizer.normalize(service.getDescription())));
+                if (score > 0) {
+                    String category = service.getCategory() != null ? service.getCategory().getValue() : null;
+                    matches.add(new SearchResultDto("service", service.getId(), service.getName(), category, score));
+                }
+            }
+        }
+        if (types.contains("barber")) {
+            for (BarberDto barber : barberService.getAllActiveBarbers()) {
+                double score = fieldScore(q, SearchNormalizer.normalize(barber.getName()));
+                String specialties = barber.getSpecialties() != null ? String.join(", ", barber.getSpecialties()) : null;
+                if (barber.getSpecialties() != null) {
+                    for (String specialty : barber.getSpecialties()) {
+                        score = Math.max(score, 0.8 * fieldScore(q, SearchNormalizer.normalize(specialty)));
+                    }
+                }
+                if (score > 0) {
+                    matches.add(new SearchResultDto("barber", barber.getId(), barber.getName(), specialties, score));
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble(SearchResultDto::getScore).reversed()
+            .thenComparing(SearchResultDto::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+
+        int from = Math.min(pageNumber * pageSize, matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        return new SearchPageDto(new ArrayList<>(matches.subList(from, to)), pageNumber, pageSize, matches.size());
+    }
+
+    private void searchUsers(String q, String qDigits, List<SearchResultDto> matches) {
+        Set<Long> candidates = new HashSet<>(userSearchIndex.candidates(q, MIN_TRIGRAM_SHARE));
+        boolean phoneQuery = qDigits.length() >= 3;
+        if (phoneQuery) {
+            candidates.addAll(userSearchIndex.candidates(qDigits, 1.0));
+        }
+
+        for (Long id : candidates) {
+            String[] fields = userSearchIndex.fields(id);
+            UserDto user = userSearchIndex.get(id);
+            if (fields == null || user == null || !Boolean.TRUE.equals(user.getIsActive())) {
+                continue; // Eliminado o desactivado durante la búsqueda
+            }
+            double score = Math.max(
+                fieldScore(q, fields[UserSearchIndex.NAME]),
+                0.9 * fieldScore(q, fields[UserSearchIndex.EMAIL]));
+            if (phoneQuery) {
+                score = Math.max(score, 0.9 * fieldScore(qDigits, fields[UserSearchIndex.PHONE]));
+            }
+            if (score > 0) {
+                matches.add(new SearchResultDto("user", user.getId(), user.getName(), user.getEmail(), score));
+            }
+        }
+    }
+
+    /**
+     * Relevancia de un campo normalizado: coincidencia exacta, prefijo, inicio de
+     * palabra, subcadena y, por último, similitud de trigramas para errores de escritura.
+     */
+    static double fieldScore(String query, String field) {
+        if (field == null || field.isEmpty()) {
+            return 0;
+        }
+        if (field.equals(query)) {
+            return 1.0;
+        }
+        if (field.startsWith(query)) {
+            return 0.9;
+        }
+        int index = field.indexOf(query);
+        if (index > 0) {
+            char previous = field.charAt(index - 1);
+            return Character.isLetterOrDigit(previous) ? 0.6 : 0.8;
+        }
+
+        Set<String> queryTrigrams = TrigramIndex.trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return 0;
+        }
+        Set<String> fieldTrigrams = TrigramIndex.trigrams(field);
+        int common = 0;
+        for (String trigram : queryTrigrams) {
+            if (fieldTrigrams.contains(trigram)) {
+                common++;
+            }
+        }
+        double similarity = (double) common / queryTrigrams.size();
+        return similarity >= MIN_TRIGRAM_SHARE ? 0.5 * similarity : 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.barbershop.service;
 
+import com.barbershop.config.CatalogVersion;
 import com.barbershop.dto.CreateServiceRequestDto;
 import com.barbershop.dto.ServiceDto;
 import com.barbershop.entity.Service;
@@ -8,7 +9,11 @@ import com.barbershop.repository.ServiceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
@@ -18,22 +23,32 @@ public class ServiceService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Foto inmutable de los servicios activos; se reconstruye cuando cambia la versión del catálogo
+    private volatile ServiceCatalog catalog;
+
     public List<ServiceDto> getAllActiveServices() {
-        return serviceRepository.findByIsActiveTrueOrderByNameAsc().stream()
-            .map(this::convertToServiceDto)
-            .collect(Collectors.toList());
+        return catalog().active;
     }
 
     public ServiceDto getServiceById(Long id) {
+        ServiceDto cached = catalog().byId.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        // Los servicios inactivos no están en el catálogo
         Service service = serviceRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Service not found with id: " + id));
         return convertToServiceDto(service);
     }
 
     public List<ServiceDto> getServicesByCategory(ServiceCategory category) {
-        return serviceRepository.findByCategoryAndIsActiveTrue(category).stream()
-            .map(this::convertToServiceDto)
-            .collect(Collectors.toList());
+        return catalog().byCategory.getOrDefault(category, List.of());
     }
 
     public ServiceDto createService(CreateServiceRequestDto request) {
@@ -47,6 +62,7 @@ public class ServiceService {
         service.setIsActive(true);
 
         Service savedService = serviceRepository.save(service);
+        catalogVersion.bumpServices();
         return convertToServiceDto(savedService);
     }
 
@@ -64,6 +80,7 @@ public class ServiceService {
         }
 
         Service updatedService = serviceRepository.save(service);
+        catalogVersion.bumpServices();
         return convertToServiceDto(updatedService);
     }
 
@@ -72,6 +89,7 @@ public class ServiceService {
             .orElseThrow(() -> new RuntimeException("Service not found with id: " + id));
         service.setIsActive(false);
         serviceRepository.save(service);
+        catalogVersion.bumpServices();
     }
 
     public void activateService(Long id) {
@@ -79,16 +97,42 @@ public class ServiceService {
             .orElseThrow(() -> new RuntimeException("Service not found with id: " + id));
         service.setIsActive(true);
         serviceRepository.save(service);
+        catalogVersion.bumpServices();
     }
 
     public void deleteService(Long id) {
         Service service = serviceRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Service not found with id: " + id));
+
+        // Las citas del servicio se borran en cascada: se descuentan antes de los agregados
+        appointmentStatsService.recordServiceRemoved(id);
         serviceRepository.delete(service);
+        catalogVersion.bumpServices();
     }
 
     public long getActiveServiceCount() {
-        return serviceRepository.countActiveServices();
+        return catalog().active.size();
+    }
+
+    private ServiceCatalog catalog() {
+        ServiceCatalog current = catalog;
+        if (current != null && current.version == catalogVersion.getServicesVersion()) {
+            return current;
+        }
+        return rebuildCatalog();
+    }
+
+    private synchronized ServiceCatalog rebuildCatalog() {
+        long version = catalogVersion.getServicesVersion();
+        ServiceCatalog current = catalog;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        List<ServiceDto> active = serviceRepository.findByIsActiveTrueOrderByNameAsc().stream()
+            .map(this::convertToServiceDto)
+            .collect(Collectors.toList());
+        catalog = new ServiceCatalog(version, active);
+        return catalog;
     }
 
     private ServiceDto convertToServiceDto(Service service) {
@@ -107,4 +151,30 @@ public class ServiceService {
     private String generateDefaultImage() {
         return "/assets/images/services/default.svg";
     }
+
+    /**
+     * Servicios activos indexados por id y categoría. Los DTOs se comparten entre
+     * peticiones y no deben modificarse.
+     */
+    private static final class ServiceCatalog {
+        private final long version;
+        private final List<ServiceDto> active;
+        private final Map<Long, ServiceDto> byId;
+        private final Map<ServiceCategory, List<ServiceDto>> byCategory;
+
+        ServiceCatalog(long version, List<ServiceDto> active) {
+            this.version = version;
+            this.active = List.copyOf(active);
+            this.byId = active.stream().collect(Collectors.toUnmodifiableMap(ServiceDto::getId, dto -> dto));
+
+            Map<ServiceCategory, List<ServiceDto>> categories = new EnumMap<>(ServiceCategory.class);
+            for (ServiceDto dto : active) {
+                if (dto.getCategory() != null) {
+                    categories.computeIfAbsent(dto.getCategory(), c -> new ArrayList<>()).add(dto);
+                }
+            }
+            categories.replaceAll((category, services) -> List.copyOf(services));
+            this.byCategory = Collections.unmodifiableMap(categories);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.barbershop.service;
+
+import com.barbershop.config.TokenBlacklistCache;
+import com.barbershop.repository.RefreshTokenRepository;
+import com.barbershop.repository.TokenBlacklistRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Purga periódica de token_blacklist y refresh_tokens.
+ *
+ * Borra los tokens expirados por lotes de {@code security.token-purge.batch-size}
+ * filas, cada uno en su propia transacción, avanzando por ID para no volver a
+ * recorrer lo ya purgado. Como los tokens caducan en el mismo orden en que se
+ * crean, los expirados quedan al principio de la tabla.
+ */
+@Service
+public class TokenMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenMaintenanceService.class);
+
+    @Autowired
+    private TokenBlacklistRepository tokenBlacklistRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenBlacklistCache tokenBlacklistCache;
+
+    @Value("${security.token-purge.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${security.token-purge.pause-ms:20}")
+    private long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Métricas de la purga
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalBlacklistPurged = new AtomicLong();
+    private final AtomicLong totalRefreshTokensPurged = new AtomicLong();
+    private volatile long lastBlacklistPurged;
+    private volatile long lastRefreshTokensPurged;
+    private volatile long lastDurationMillis;
+    private volatile LocalDateTime lastRunAt;
+
+    @Scheduled(initialDelayString = "${security.token-purge.initial-delay-ms:60000}",
+               fixedDelayString = "${security.token-purge.interval-ms:3600000}")
+    public void scheduledPurge() {
+        purgeExpiredTokens();
+    }
+
+    /**
+     * Ejecuta la purga completa. Si ya hay una en curso no hace nada y devuelve false.
+     */
+    public boolean purgeExpiredTokens() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+
+            long blacklistPurged = purge(now, tokenBlacklistRepository::findExpiredIds, tokenBlacklistRepository::deleteByIds);
+            long refreshPurged = purge(now, refreshTokenRepository::findExpiredIds, refreshTokenRepository::deleteByIds);
+            if (blacklistPurged > 0) {
+                tokenBlacklistCache.rebuild();
+            }
+
+            lastDurationMillis = (System.nanoTime() - start) / 1_000_000;
+            lastBlacklistPurged = blacklistPurged;
+            lastRefreshTokensPurged = refreshPurged;
+            lastRunAt = now;
+            totalBlacklistPurged.addAndGet(blacklistPurged);
+            totalRefreshTokensPurged.addAndGet(refreshPurged);
+            runs.incrementAndGet();
+
+            logger.info("Token purge: {} blacklisted and {} refresh tokens removed in {} ms",
+                blacklistPurged, refreshPurged, lastDurationMillis);
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("runs", runs.get());
+        metrics.put("running", running.get());
+        metrics.put("lastRunAt", lastRunAt);
+        metrics.put("lastDurationMillis", lastDurationMillis);
+        metrics.put("lastBlacklistPurged", lastBlacklistPurged);
+        metrics.put("lastRefreshTokensPurged", lastRefreshTokensPurged);
+        metrics.put("totalBlacklistPurged", totalBlacklistPurged.get());
+        metrics.put("totalRefreshTokensPurged", totalRefreshTokensPurged.get());
+        metrics.put("blacklistCacheSize", tokenBlacklistCache.size());
+        return metrics;
+    }
+
+    private long purge(LocalDateTime now,
+                       ExpiredIdFinder finder,
+                       Function<List<Long>, Integer> deleter) {
+        long purged = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = finder.find(now, afterId, batchSize);
+            if (ids.isEmpty()) {
+                return purged;
+            }
+            purged += deleter.apply(ids);
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize || !pause()) {
+                return purged;
+            }
+        }
+    }
+
+    // Deja respirar a la base de datos entre lotes; devuelve false si el hilo se interrumpe
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ExpiredIdFinder {
+        List<Long> find(LocalDateTime now, long afterId, int limit);
+    }
+}
@@ -0,0 +1,104 @@
+package com.barbershop.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido de trigramas en memoria. Cada documento es una lista de campos
+ * ya normalizados con {@link SearchNormalizer}; una búsqueda devuelve los documentos
+ * que contienen al menos una fracción de los trigramas de la consulta, sin recorrer
+ * todos los documentos. Las lecturas no bloquean; las escrituras se serializan.
+ */
+public class TrigramIndex<K> {
+
+    private final Map<K, String[]> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<K>> postings = new ConcurrentHashMap<>();
+
+    public synchronized void put(K key, String... fields) {
+        remove(key);
+        documents.put(key, fields);
+        for (String field : fields) {
+            for (String trigram : trigrams(field)) {
+                postings.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+    }
+
+    public synchronized void remove(K key) {
+        String[] previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String field : previous) {
+            for (String trigram : trigrams(field)) {
+                Set<K> keys = postings.get(trigram);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    public String[] get(K key) {
+        return documents.get(key);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Documentos que contienen al menos {@code minShare} (0..1) de los trigramas de
+     * {@code query}. Con 1.0 se obtienen todos los que contienen la consulta como
+     * subcadena de algún campo (y algún falso positivo). Las consultas de menos de
+     * tres caracteres no tienen trigramas y no devuelven ningún documento.
+     */
+    public Collection<K> candidates(String query, double minShare) {
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return Set.of();
+        }
+
+        int required = Math.max(1, (int) Math.ceil(queryTrigrams.size() * minShare));
+        Map<K, Integer> hits = new HashMap<>();
+        for (String trigram : queryTrigrams) {
+            Set<K> keys = postings.get(trigram);
+            if (keys != null) {
+                for (K key : keys) {
+                    hits.merge(key, 1, Integer::sum);
+                }
+            }
+        }
+
+        Set<K> result = new HashSet<>();
+        hits.forEach((key, count) -> {
+            if (count >= required) {
+                result.add(key);
+            }
+        });
+        return result;
+    }
+
+    public static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
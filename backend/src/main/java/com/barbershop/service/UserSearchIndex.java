@@ -0,0 +1,107 @@
+package com.barbershop.service;
+
+import com.barbershop.dto.UserDto;
+import com.barbershop.entity.User;
+import com.barbershop.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de trigramas en memoria de los usuarios activos (nombre, email y dígitos
+ * del teléfono). Se carga al arrancar y los servicios que crean, modifican o borran
+ * usuarios deben llamar a {@link #indexUser(User)} o {@link #removeUser(Long)}.
+ * Los usuarios desactivados salen del índice y no ocupan memoria.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    // Posiciones de los campos en cada documento del índice
+    static final int NAME = 0;
+    static final int EMAIL = 1;
+    static final int PHONE = 2;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TrigramIndex<Long> index = new TrigramIndex<>();
+
+    private final Map<Long, UserDto> users = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        index.clear();
+        users.clear();
+        for (UserDto user : userRepository.findAllForSearchIndex()) {
+            if (Boolean.TRUE.equals(user.getIsActive())) {
+                put(user);
+            }
+        }
+        logger.info("User search index loaded with {} users", index.size());
+    }
+
+    /**
+     * Registra los datos actuales del usuario. Dentro de una transacción el cambio
+     * se aplica solo si se confirma.
+     */
+    public void indexUser(User user) {
+        UserDto snapshot = new UserDto(user.getId(), user.getName(), user.getEmail(), user.getPhone(),
+            user.getRole() != null ? user.getRole().getName() : null, user.getIsActive());
+        if (Boolean.TRUE.equals(snapshot.getIsActive())) {
+            afterCommit(() -> put(snapshot));
+        } else {
+            removeUser(user.getId());
+        }
+    }
+
+    public void removeUser(Long userId) {
+        afterCommit(() -> {
+            index.remove(userId);
+            users.remove(userId);
+        });
+    }
+
+    public Collection<Long> candidates(String query, double minShare) {
+        return index.candidates(query, minShare);
+    }
+
+    public String[] fields(Long userId) {
+        return index.get(userId);
+    }
+
+    public UserDto get(Long userId) {
+        return users.get(userId);
+    }
+
+    private void put(UserDto user) {
+        users.put(user.getId(), user);
+        index.put(user.getId(),
+            SearchNormalizer.normalize(user.getName()),
+            SearchNormalizer.normalize(user.getEmail()),
+            user.getPhone() != null ? user.getPhone().replaceAll("\\D", "") : "");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
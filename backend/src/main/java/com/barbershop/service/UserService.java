@@ -1,8 +1,12 @@
 package com.barbershop.service;
 
+import com.barbershop.config.CatalogVersion;
+import com.barbershop.config.UserPrincipalCache;
 import com.barbershop.dto.CreateUserRequestDto;
 import com.barbershop.dto.UpdateUserRequestDto;
 import com.barbershop.dto.UserDto;
+import com.barbershop.dto.UserPageDto;
+import com.barbershop.dto.UserSearchCriteria;
 import com.barbershop.entity.Role;
 import com.barbershop.entity.User;
 import com.barbershop.repository.RoleRepository;
@@ -19,6 +23,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    // Tamaño máximo de página del listado de usuarios
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -28,12 +35,44 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private AppointmentStatsService appointmentStatsService;
+
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
             .map(this::convertToUserDto)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Listado paginado de usuarios con proyección plana. Sin filtros el total se toma
+     * de las estadísticas de PostgreSQL en lugar de contar la tabla completa.
+     */
+    public UserPageDto getUserPage(UserSearchCriteria criteria, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        List<UserDto> items = userRepository.findUserPage(criteria, pageNumber * pageSize, pageSize);
+
+        boolean unfiltered = criteria.getRole() == null && criteria.getIsActive() == null
+            && criteria.getCreatedFrom() == null && criteria.getCreatedTo() == null;
+        if (unfiltered) {
+            long estimate = userRepository.estimateUserCount();
+            if (estimate >= 0) {
+                return new UserPageDto(items, pageNumber, pageSize, estimate, true);
+            }
+        }
+        return new UserPageDto(items, pageNumber, pageSize, userRepository.countUsers(criteria), false);
+    }
+
     public List<UserDto> getUsersByRole(String roleName) {
         Role role = roleRepository.findByName(roleName)
             .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
@@ -65,6 +104,9 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         user.setIsActive(false);
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getEmail());
+        bumpCatalogIfBarber(user);
+        userSearchIndex.indexUser(user);
     }
 
     public void activateUser(Long userId) {
@@ -72,6 +114,9 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         user.setIsActive(true);
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getEmail());
+        bumpCatalogIfBarber(user);
+        userSearchIndex.indexUser(user);
     }
 
     public long getTotalUserCount() {
@@ -102,6 +147,7 @@ public class UserService {
         user.setIsActive(true);
 
         User savedUser = userRepository.save(user);
+        userSearchIndex.indexUser(savedUser);
         return convertToUserDto(savedUser);
     }
 
@@ -118,6 +164,9 @@ public class UserService {
         Role role = roleRepository.findByName(request.getRole())
             .orElseThrow(() -> new RuntimeException("Role not found: " + request.getRole()));
 
+        userPrincipalCache.invalidate(user.getEmail());
+        bumpCatalogIfBarber(user);
+
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setPhone(request.getPhone());
@@ -134,13 +183,27 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        userSearchIndex.indexUser(updatedUser);
         return convertToUserDto(updatedUser);
     }
 
     public void deleteUser(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+
+        // Las citas del usuario se borran en cascada: se descuentan antes de los agregados
+        appointmentStatsService.recordUserRemoved(user.getId());
         userRepository.delete(user);
+        userPrincipalCache.invalidate(user.getEmail());
+        bumpCatalogIfBarber(user);
+        userSearchIndex.removeUser(user.getId());
+    }
+
+    // Los datos del usuario forman parte del catálogo público de barberos
+    private void bumpCatalogIfBarber(User user) {
+        if (user.getRole() != null && "BARBER".equals(user.getRole().getName())) {
+            catalogVersion.bumpBarbers();
+        }
     }
 
     private UserDto convertToUserDto(User user) {
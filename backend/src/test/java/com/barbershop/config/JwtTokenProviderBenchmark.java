@@ -0,0 +1,77 @@
+package com.barbershop.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de validar un JWT en JwtAuthenticationFilter: huella SHA-256,
+ * verificación con la caché de claims y sin ella, y como referencia el camino
+ * anterior (clave derivada del secreto en cada llamada y el token parseado dos veces).
+ *
+ * Se compila y ejecuta solo con el perfil benchmark:
+ * mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-with-at-least-256-bits-for-hs256";
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private String token;
+    private byte[] digest;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), 10_000);
+        uncachedProvider = new JwtTokenProvider(SECRET, TimeUnit.HOURS.toMillis(1), 0);
+        token = cachedProvider.generateTokenFromUsername("cliente@barbershop.com");
+        digest = TokenDigest.sha256(token);
+        cachedProvider.parseClaims(token, digest);
+    }
+
+    @Benchmark
+    public byte[] digest() {
+        return TokenDigest.sha256(token);
+    }
+
+    @Benchmark
+    public Claims parseCached() {
+        return cachedProvider.parseClaims(token, TokenDigest.sha256(token));
+    }
+
+    @Benchmark
+    public Claims parseUncached() {
+        return uncachedProvider.parseClaims(token, digest);
+    }
+
+    // Reproduce validateToken + getUsernameFromToken tal como estaban antes de la caché
+    @Benchmark
+    public String legacyValidateAndGetUsername() {
+        Jwts.parser().verifyWith(legacySigningKey()).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(legacySigningKey()).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    private static SecretKey legacySigningKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+}
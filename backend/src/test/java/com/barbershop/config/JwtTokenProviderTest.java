@@ -0,0 +1,56 @@
+package com.barbershop.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-256-bits-for-hs256!!";
+
+    @Test
+    void cachedClaimsAreReusedForTheSameToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        String token = provider.generateTokenFromUsername("ana@test.com");
+
+        Claims first = provider.parseClaims(token);
+        Claims second = provider.parseClaims(token, TokenDigest.sha256(token));
+
+        assertEquals("ana@test.com", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 100);
+        String token = provider.generateTokenFromUsername("ana@test.com");
+        provider.parseClaims(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> provider.parseClaims(tampered));
+        assertNull(provider.getValidatedClaims(tampered));
+    }
+
+    @Test
+    void expiredTokenIsNotValid() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, -1_000, 100);
+        String token = provider.generateTokenFromUsername("ana@test.com");
+
+        assertNull(provider.getValidatedClaims(token));
+    }
+
+    @Test
+    void disabledCacheStillVerifiesTokens() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 0);
+        String token = provider.generateTokenFromUsername("ana@test.com");
+
+        assertNotNull(provider.getValidatedClaims(token));
+        assertEquals("ana@test.com", provider.getUsernameFromToken(token));
+    }
+}
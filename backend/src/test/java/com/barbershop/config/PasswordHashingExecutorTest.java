@@ -0,0 +1,110 @@
+package com.barbershop.config;
+
+import com.barbershop.exception.HashingCapacityExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void returnsResultAndRecordsLatency() {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 4, 5_000);
+        try {
+            assertEquals("hash", executor.call(() -> "hash"));
+
+            Map<String, Object> metrics = executor.getMetrics();
+            assertEquals(1L, metrics.get("hashCount"));
+            assertTrue((Double) metrics.get("maxTotalMillis") >= (Double) metrics.get("maxHashMillis"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Thread busy = blockWorker(executor, release);
+            Thread queued = new Thread(() -> swallow(() -> executor.call(() -> "queued")));
+            queued.start();
+            waitUntilQueued(executor, 1);
+
+            assertThrows(HashingCapacityExceededException.class, () -> executor.call(() -> "rejected"));
+            assertEquals(1L, executor.getMetrics().get("rejectedTasks"));
+
+            release.countDown();
+            busy.join();
+            queued.join();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void timedOutTaskIsRemovedFromQueueAndNeverRuns() throws Exception {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        try {
+            Thread busy = blockWorker(executor, release);
+
+            assertThrows(HashingCapacityExceededException.class, () -> executor.call(() -> {
+                ran.set(true);
+                return "late";
+            }));
+            // El hueco de la cola queda libre en cuanto vence el plazo
+            assertEquals(0, executor.getMetrics().get("queueDepth"));
+            assertEquals(1L, executor.getMetrics().get("cancelledBeforeStart"));
+
+            release.countDown();
+            busy.join();
+            assertFalse(ran.get());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    // Ocupa el único hilo del pool hasta que se libere el latch
+    private static Thread blockWorker(PasswordHashingExecutor executor, CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Thread thread = new Thread(() -> swallow(() -> executor.call(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "busy";
+        })));
+        thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return thread;
+    }
+
+    private static void waitUntilQueued(PasswordHashingExecutor executor, int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((Integer) executor.getMetrics().get("queueDepth") < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void swallow(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ignored) {
+            // El plazo de estas llamadas auxiliares puede vencer; no importa para el test
+        }
+    }
+}
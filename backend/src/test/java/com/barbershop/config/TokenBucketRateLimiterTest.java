@@ -0,0 +1,135 @@
+package com.barbershop.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    // 5 tokens de ráfaga, 1 token cada 12 segundos
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(12);
+
+    private long now = TimeUnit.DAYS.toNanos(1);
+
+    private TokenBucketRateLimiter limiter(int maxKeys) {
+        return new TokenBucketRateLimiter(5, 5, maxKeys, () -> now);
+    }
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("ip"), "request " + i);
+        }
+        assertTrue(limiter.tryAcquire("ip") > 0);
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a");
+        }
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void retryAfterIsTimeUntilNextToken() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("ip");
+        }
+        assertEquals(INTERVAL, limiter.tryAcquire("ip"));
+
+        now += TimeUnit.SECONDS.toNanos(5);
+        assertEquals(INTERVAL - TimeUnit.SECONDS.toNanos(5), limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void rejectedRequestsDoNotConsumeTokens() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("ip");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire("ip") > 0);
+        }
+        now += INTERVAL;
+        assertEquals(0, limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("ip");
+        }
+
+        now += INTERVAL;
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertTrue(limiter.tryAcquire("ip") > 0);
+
+        now += 2 * INTERVAL;
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertTrue(limiter.tryAcquire("ip") > 0);
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        limiter.tryAcquire("ip");
+
+        now += TimeUnit.HOURS.toNanos(1);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("ip"), "request " + i);
+        }
+        assertTrue(limiter.tryAcquire("ip") > 0);
+    }
+
+    @Test
+    void evictionKeepsKeyCountBounded() {
+        TokenBucketRateLimiter limiter = limiter(160);
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+        assertTrue(limiter.size() <= 160, "size " + limiter.size());
+    }
+
+    @Test
+    void peekDoesNotConsumeOrRegisterKeys() {
+        TokenBucketRateLimiter limiter = limiter(100);
+        assertEquals(0, limiter.peek("ip"));
+        assertEquals(0, limiter.size());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.peek("ip"));
+            limiter.tryAcquire("ip");
+        }
+        assertEquals(INTERVAL, limiter.peek("ip"));
+        assertEquals(INTERVAL, limiter.peek("ip"));
+
+        now += INTERVAL;
+        assertEquals(0, limiter.peek("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void evictionKeepsThrottledKeysWhenNewKeysFloodIn() {
+        // 16 claves por mapa: la clave frenada comparte mapa con muchas de las nuevas
+        TokenBucketRateLimiter limiter = limiter(256);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("victim");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("spray-" + i);
+        }
+
+        assertTrue(limiter.size() <= 256, "size " + limiter.size());
+        assertTrue(limiter.tryAcquire("victim") > 0);
+    }
+}
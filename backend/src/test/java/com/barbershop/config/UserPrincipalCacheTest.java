@@ -0,0 +1,62 @@
+package com.barbershop.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UserPrincipalCacheTest {
+
+    private final UserPrincipalCache cache = new UserPrincipalCache(300, 100);
+
+    private static UserDetails principal(String email, boolean enabled) {
+        return new User(email, "x", enabled, true, true, true, Collections.emptyList());
+    }
+
+    @Test
+    void cachesLoadedPrincipal() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a@test.com", email -> { loads.incrementAndGet(); return principal(email, true); });
+        cache.get("a@test.com", email -> { loads.incrementAndGet(); return principal(email, true); });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a@test.com", email -> { loads.incrementAndGet(); return principal(email, true); });
+        cache.invalidate("a@test.com");
+        cache.get("a@test.com", email -> { loads.incrementAndGet(); return principal(email, true); });
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsStaleValue() {
+        // La carga lee el estado anterior y la invalidación llega antes del put
+        cache.get("a@test.com", email -> {
+            UserDetails stale = principal(email, true);
+            cache.invalidate(email);
+            return stale;
+        });
+
+        UserDetails current = cache.get("a@test.com", email -> principal(email, false));
+        assertFalse(current.isEnabled());
+    }
+
+    @Test
+    void invalidateAllDuringLoadDiscardsStaleValue() {
+        cache.get("a@test.com", email -> {
+            UserDetails stale = principal(email, true);
+            cache.invalidateAll();
+            return stale;
+        });
+
+        UserDetails current = cache.get("a@test.com", email -> principal(email, false));
+        assertFalse(current.isEnabled());
+    }
+}
@@ -0,0 +1,37 @@
+package com.barbershop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AppointmentCsvFieldTest {
+
+    @Test
+    void plainTextIsWrittenAsIs() {
+        assertEquals("Corte clásico", AppointmentService.csvField("Corte clásico"));
+        assertEquals("", AppointmentService.csvField(null));
+    }
+
+    @Test
+    void separatorsAndQuotesAreEscaped() {
+        assertEquals("\"a,b\"", AppointmentService.csvField("a,b"));
+        assertEquals("\"dijo \"\"hola\"\"\"", AppointmentService.csvField("dijo \"hola\""));
+    }
+
+    @Test
+    void formulaPrefixesAreNeutralized() {
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\")\"", AppointmentService.csvField("=HYPERLINK(\"http://x\")"));
+        assertEquals("\"'+34 600 000 000\"", AppointmentService.csvField("+34 600 000 000"));
+        assertEquals("\"'-1+1\"", AppointmentService.csvField("-1+1"));
+        assertEquals("\"'@SUM(A1)\"", AppointmentService.csvField("@SUM(A1)"));
+        assertEquals("\"'\tx\"", AppointmentService.csvField("\tx"));
+        assertEquals("\"'\rx\"", AppointmentService.csvField("\rx"));
+    }
+
+    @Test
+    void numericValuesAreNotPrefixed() {
+        assertEquals("-5.00", AppointmentService.csvField(new BigDecimal("-5.00")));
+    }
+}
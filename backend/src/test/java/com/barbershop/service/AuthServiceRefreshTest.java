@@ -0,0 +1,116 @@
+package com.barbershop.service;
+
+import com.barbershop.config.JwtTokenProvider;
+import com.barbershop.config.TokenBlacklistCache;
+import com.barbershop.dto.AuthResponseDto;
+import com.barbershop.entity.RefreshToken;
+import com.barbershop.entity.Role;
+import com.barbershop.entity.User;
+import com.barbershop.exception.RefreshTokenAlreadyRotatedException;
+import com.barbershop.repository.RefreshTokenRepository;
+import com.barbershop.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceRefreshTest {
+
+    private static final String OLD_TOKEN = "old-refresh-token";
+    private static final String NEW_TOKEN = "new-refresh-token";
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private TokenBlacklistCache tokenBlacklistCache;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authService, "refreshReuseGraceSeconds", 30L);
+
+        user = new User("Ana", "ana@test.com", "hash", null, new Role("CLIENT", null));
+        user.setId(7L);
+
+        Claims claims = mock(Claims.class);
+        when(claims.getSubject()).thenReturn("ana@test.com");
+        when(tokenBlacklistCache.isBlacklisted(any(byte[].class))).thenReturn(false);
+        when(jwtTokenProvider.getValidatedClaims(eq(OLD_TOKEN), any(byte[].class))).thenReturn(claims);
+        when(jwtTokenProvider.generateRefreshToken("ana@test.com")).thenReturn(NEW_TOKEN);
+        when(jwtTokenProvider.getRefreshTokenExpiryDate()).thenReturn(LocalDateTime.now().plusDays(7));
+    }
+
+    private RefreshToken rotatedSecondsAgo(long seconds) {
+        RefreshToken token = new RefreshToken(new byte[32], user, LocalDateTime.now().plusDays(7));
+        token.setIsRevoked(true);
+        token.setRevokeReason("rotated");
+        token.setRevokedAt(LocalDateTime.now().minusSeconds(seconds));
+        return token;
+    }
+
+    @Test
+    void firstUseRotatesAndReturnsSuccessor() {
+        when(refreshTokenRepository.rotate(any(), any(), any(), any())).thenReturn(1);
+        when(userRepository.findByEmail("ana@test.com")).thenReturn(Optional.of(user));
+        when(jwtTokenProvider.generateTokenFromUsername("ana@test.com")).thenReturn("access-token");
+
+        AuthResponseDto response = authService.refreshToken(OLD_TOKEN);
+
+        assertEquals(NEW_TOKEN, response.getRefreshToken());
+    }
+
+    @Test
+    void replayInsideGraceWindowIsRejectedWithoutNewSuccessorOrRevocation() {
+        when(refreshTokenRepository.rotate(any(), any(), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(rotatedSecondsAgo(5)));
+
+        assertThrows(RefreshTokenAlreadyRotatedException.class, () -> authService.refreshToken(OLD_TOKEN));
+
+        // Un único intento de rotación (que no inserta nada) y ninguna revocación masiva
+        verify(refreshTokenRepository, times(1)).rotate(any(), any(), any(), any());
+        verify(refreshTokenRepository, never()).revokeAllByUserIdInNewTransaction(anyLong(), anyString(), any());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void replayOutsideGraceWindowRevokesEverySession() {
+        when(refreshTokenRepository.rotate(any(), any(), any(), any())).thenReturn(0);
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(rotatedSecondsAgo(120)));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> authService.refreshToken(OLD_TOKEN));
+
+        assertEquals("Refresh token reuse detected", ex.getMessage());
+        verify(refreshTokenRepository).revokeAllByUserIdInNewTransaction(eq(7L), eq("reuse"), any());
+    }
+}
@@ -0,0 +1,164 @@
+package com.barbershop.service;
+
+import com.barbershop.dto.BookedSlotDto;
+import com.barbershop.entity.BarberException;
+import com.barbershop.entity.BarberSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayAvailabilityTest {
+
+    // Lunes
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 19);
+
+    private static BarberSchedule block(String start, String end, boolean available) {
+        BarberSchedule schedule = new BarberSchedule(null, 1, LocalTime.parse(start), LocalTime.parse(end));
+        schedule.setIsAvailable(available);
+        return schedule;
+    }
+
+    private static BookedSlotDto booking(String time, int duration) {
+        return booking(DATE, time, duration);
+    }
+
+    private static BookedSlotDto booking(LocalDate date, String time, int duration) {
+        return new BookedSlotDto(1L, date, LocalTime.parse(time), duration);
+    }
+
+    private static BarberException allDay(boolean available) {
+        return new BarberException(null, DATE, available, true);
+    }
+
+    private static List<LocalTime> times(String... values) {
+        return Arrays.stream(values).map(LocalTime::parse).toList();
+    }
+
+    @Test
+    void overlappingScheduleBlocksAreMerged() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "12:00", true), block("11:00", "14:00", true)), List.of(), List.of());
+
+        assertEquals(300, day.openMinutes());
+        assertEquals(times("09:00", "10:00", "11:00", "12:00", "13:00"), day.freeSlots(60, 60, 0));
+    }
+
+    @Test
+    void unavailableBlockIsSubtracted() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "14:00", true), block("12:00", "13:00", false)), List.of(), List.of());
+
+        assertEquals(240, day.openMinutes());
+        assertFalse(day.isOpen(LocalTime.parse("12:30")));
+        assertTrue(day.isOpen(LocalTime.parse("13:00")));
+    }
+
+    @Test
+    void overlappingBookingsBlockTheirUnion() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "12:00", true)), List.of(),
+            List.of(booking("09:00", 90), booking("10:00", 60)));
+
+        assertEquals(times("11:00"), day.freeSlots(60, 30, 0));
+    }
+
+    @Test
+    void slotAdjacentToBookingIsFreeWithoutBuffer() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "12:00", true)), List.of(), List.of(booking("10:00", 60)));
+
+        assertEquals(times("09:00", "11:00"), day.freeSlots(60, 60, 0));
+    }
+
+    @Test
+    void bufferKeepsAdjacentSlotsAway() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "13:00", true)), List.of(), List.of(booking("10:00", 60)));
+
+        // 09:00 acabaría justo cuando empieza la cita, sin el margen de 15 minutos
+        assertEquals(times("11:15", "11:30", "11:45", "12:00"), day.freeSlots(60, 15, 15));
+    }
+
+    @Test
+    void allDayUnavailableExceptionClosesTheDay() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "18:00", true)), List.of(allDay(false)), List.of());
+
+        assertEquals(0, day.openMinutes());
+        assertTrue(day.freeSlots(30).isEmpty());
+    }
+
+    @Test
+    void allDayAvailableExceptionOpensBlocksMarkedUnavailable() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "12:00", true), block("12:00", "13:00", false)), List.of(allDay(true)), List.of());
+
+        assertEquals(240, day.openMinutes());
+        assertTrue(day.isOpen(LocalTime.parse("12:30")));
+    }
+
+    @Test
+    void endAtMidnightMeansEndOfDay() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("22:00", "00:00", true)), List.of(), List.of());
+
+        assertEquals(120, day.openMinutes());
+        assertEquals(times("22:00", "23:00"), day.freeSlots(60, 60, 0));
+    }
+
+    @Test
+    void availableRangeExceptionOpensADayWithoutSchedule() {
+        BarberException extra = new BarberException(null, DATE, true, false);
+        extra.setStartTime(LocalTime.parse("10:00"));
+        extra.setEndTime(LocalTime.parse("12:00"));
+
+        DayAvailability day = DayAvailability.of(DATE, List.of(), List.of(extra), List.of());
+
+        assertEquals(120, day.openMinutes());
+        assertEquals(times("10:00", "11:00"), day.freeSlots(60, 60, 0));
+    }
+
+    @Test
+    void previousDayBookingPastMidnightIsSubtracted() {
+        // Cita del domingo de 23:30 a 00:30 más 15 minutos de margen: bloquea hasta las 00:45
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("00:00", "02:00", true)), List.of(),
+            List.of(booking(DATE.minusDays(1), "23:30", 60)));
+
+        assertEquals(times("00:45", "01:00"), day.freeSlots(60, 15, 15));
+    }
+
+    @Test
+    void nextDayBookingAfterMidnightKeepsItsBuffer() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("22:00", "00:00", true)), List.of(),
+            List.of(booking(DATE.plusDays(1), "00:00", 30)));
+
+        // 23:00 terminaría a medianoche, sin el margen de 15 minutos antes de la cita
+        assertEquals(times("22:00", "22:15", "22:30", "22:45"), day.freeSlots(60, 15, 15));
+    }
+
+    @Test
+    void bookingsFromOtherDaysAreIgnored() {
+        DayAvailability day = DayAvailability.of(DATE,
+            List.of(block("09:00", "11:00", true)), List.of(),
+            List.of(booking(DATE.minusDays(2), "09:00", 60), booking(DATE.plusDays(7), "10:00", 60)));
+
+        assertEquals(times("09:00", "10:00"), day.freeSlots(60, 60, 0));
+    }
+
+    @Test
+    void zeroGranularityIsRejected() {
+        DayAvailability day = DayAvailability.of(DATE, List.of(block("09:00", "12:00", true)), List.of(), List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> day.freeSlots(30, 0, 0));
+    }
+}
@@ -0,0 +1,74 @@
+package com.barbershop.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalImageStorageTest {
+
+    private Path root;
+    private Path source;
+    private LocalImageStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("local-storage-test");
+        source = Files.createTempFile("upload-", ".tmp");
+        Files.write(source, new byte[] { 1, 2, 3 });
+        storage = new LocalImageStorage(root.toString(), "/api/uploads");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void storesCopyUnderFolderAndReturnsServedUrl() throws IOException {
+        String url = storage.store(source, "barbershop/services", "corte.JPG");
+
+        assertTrue(url.startsWith("/api/uploads/barbershop/services/"));
+        assertTrue(url.endsWith(".jpg"));
+        Path stored = root.resolve(url.substring("/api/uploads/".length()));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(stored));
+        assertTrue(Files.exists(source));
+    }
+
+    @Test
+    void dropsUnsafeExtensions() throws IOException {
+        String url = storage.store(source, "barbershop/barbers", "foto.php%00.png/");
+
+        assertFalse(url.contains("%"));
+        assertFalse(url.endsWith("/"));
+    }
+
+    @Test
+    void deleteRemovesStoredFile() throws IOException {
+        String url = storage.store(source, "barbershop/services", "corte.png");
+        String publicId = url.substring("/api/uploads/".length());
+
+        storage.delete(publicId);
+
+        assertFalse(Files.exists(root.resolve(publicId)));
+    }
+
+    @Test
+    void rejectsPathsOutsideTheRoot() {
+        assertThrows(RuntimeException.class, () -> storage.store(source, "../outside", "corte.png"));
+        assertThrows(RuntimeException.class, () -> storage.delete("../../etc/passwd"));
+    }
+}
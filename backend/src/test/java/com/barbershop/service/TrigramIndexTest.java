@@ -0,0 +1,40 @@
+package com.barbershop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<Long> index() {
+        TrigramIndex<Long> index = new TrigramIndex<>();
+        index.put(1L, "maria garcia", "maria@test.com");
+        index.put(2L, "mario lopez", "mario@test.com");
+        index.put(3L, "ana ruiz", "ana@test.com");
+        return index;
+    }
+
+    @Test
+    void findsDocumentsContainingTheQuery() {
+        assertEquals(Set.of(1L), Set.copyOf(index().candidates("garcia", 1.0)));
+        assertEquals(Set.of(1L, 2L), Set.copyOf(index().candidates("mari", 1.0)));
+    }
+
+    @Test
+    void shortQueriesMatchNothing() {
+        assertTrue(index().candidates("ma", 0.5).isEmpty());
+        assertTrue(index().candidates("", 0.5).isEmpty());
+    }
+
+    @Test
+    void removedDocumentsAreNotCandidates() {
+        TrigramIndex<Long> index = index();
+        index.remove(1L);
+
+        assertEquals(Set.of(2L), Set.copyOf(index.candidates("mari", 1.0)));
+        assertEquals(2, index.size());
+    }
+}
@@ -266,6 +266,11 @@ export class AuthService {
         throw new Error('Invalid response from refresh endpoint');
       }),
       catchError(error => {
+        // 409: otra pestaña ya rotó este refresh token y guardó el sucesor
+        const storedUser = localStorage.getItem('currentUser');
+        if (error?.status === 409 && storedUser && localStorage.getItem('refreshToken') !== refreshToken) {
+          return of(JSON.parse(storedUser) as User);
+        }
         console.error('Token refresh failed:', error);
         this.clearAuthData();
         return throwError(() => new Error('Failed to refresh token'));